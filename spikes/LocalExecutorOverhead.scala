@@ -0,0 +1,36 @@
+package scavenger.mains
+
+import scala.concurrent.{Await, Future}
+import scala.concurrent.duration._
+import scala.language.postfixOps
+import scavenger._
+import scavenger.app.LocalScavengerApp
+
+/** Measures the overhead of `Cheap` jobs that are executed directly
+  * on the master node (`SimpleComputationExecutor.computeHere`).
+  *
+  * Submits batches of trivial distinct jobs, prints the average time
+  * per job, and the number of live threads and used heap after each batch.
+  */
+object LocalExecutorOverhead extends LocalScavengerApp(1) {
+  def main(args: Array[String]): Unit = {
+    Await.result(scavengerInit(), 60 seconds)
+    val ctx = scavengerContext
+    val inc = cheap("inc"){ (x: Int) => x + 1 }
+    val batchSize = if (args.isEmpty) 20000 else args(0).toInt
+    for (batch <- 1 to 5) {
+      val start = System.nanoTime
+      val jobs = for (i <- 0 until batchSize) yield {
+        ctx.submit(inc(Computation("x_" + batch + "_" + i, i)))
+      }
+      Await.result(Future.sequence(jobs), 10 minutes)
+      val micros = (System.nanoTime - start) / 1000.0 / batchSize
+      System.gc()
+      val rt = Runtime.getRuntime
+      println("batch %d: %.1f us/job, heap %d MB".format(
+        batch, micros, (rt.totalMemory - rt.freeMemory) >> 20
+      ))
+    }
+    scavengerShutdown()
+  }
+}
@@ -0,0 +1,167 @@
+package scavenger;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+import scala.concurrent.Future;
+import scala.concurrent.Promise;
+import scala.concurrent.Promise$;
+import scala.runtime.AbstractFunction2;
+
+/**
+ * Builds atomic algorithms from stateless Java functions.
+ * 
+ * The algorithms can be created once and shared by thousands of concurrent jobs:
+ * 
+ *   AtomicAlgorithm<Integer, Integer> square = Atoms.expensive("square", (x, ctx) -> x * x);
+ *   for (int i = 0; i < n; i++) 
+ *   {
+ *       futures.add(ctx.submit(square.apply(Computation$.MODULE$.apply("x" + i, i))));
+ *   }
+ *
+ * Synchronous functions are evaluated directly on the compute threads of the nodes.
+ *
+ * @see StatelessFunction
+ * @see StatelessAsyncFunction
+ */
+public final class Atoms
+{
+    private static final package$ scavengerAlgorithm = package$.MODULE$;
+
+    private Atoms() {}
+
+    /** Cheap atom that is computed synchronously */
+    public static <X, Y> AtomicAlgorithm<X, Y> cheap(String id, StatelessFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.cheap(id, toScala(f, false));
+    }
+
+    /** Expensive atom that is computed synchronously */
+    public static <X, Y> AtomicAlgorithm<X, Y> expensive(String id, StatelessFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.expensive(id, toScala(f, false));
+    }
+
+    /** Parallel atom that is computed synchronously */
+    public static <X, Y> AtomicAlgorithm<X, Y> parallel(String id, StatelessFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.parallel(id, toScala(f, false));
+    }
+
+    /** Expensive atom that blocks on I/O, runs on the blocking execution context of the node */
+    public static <X, Y> AtomicAlgorithm<X, Y> expensiveBlocking(String id, StatelessFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.expensive(id, toScala(f, true));
+    }
+
+    /** Cheap atom that returns a CompletionStage */
+    public static <X, Y> AtomicAlgorithm<X, Y> cheapAsync(String id, StatelessAsyncFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.cheap(id, toScala(f));
+    }
+
+    /** Expensive atom that returns a CompletionStage */
+    public static <X, Y> AtomicAlgorithm<X, Y> expensiveAsync(String id, StatelessAsyncFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.expensive(id, toScala(f));
+    }
+
+    /** Parallel atom that returns a CompletionStage */
+    public static <X, Y> AtomicAlgorithm<X, Y> parallelAsync(String id, StatelessAsyncFunction<X, Y> f)
+    {
+        return scavengerAlgorithm.parallel(id, toScala(f));
+    }
+
+    /**
+     * Adapts a synchronous Java function to the function type expected by the Scala API.
+     * 
+     * @param blocking whether the function blocks on I/O
+     */
+    public static <X, Y> SynchronousFunction<X, Y> toScala(final StatelessFunction<X, Y> f, final boolean blocking)
+    {
+        return new SynchronousFunction<X, Y>()
+        {
+            private static final long serialVersionUID = 1L;
+
+            public Y applySync(X input, Context ctx)
+            {
+                try
+                {
+                    return f.apply(input, ctx);
+                }
+                catch (RuntimeException e)
+                {
+                    throw e;
+                }
+                catch (Exception e)
+                {
+                    throw new CompletionException(e);
+                }
+            }
+
+            public boolean isBlocking()
+            {
+                return blocking;
+            }
+        };
+    }
+
+    /**
+     * Adapts an asynchronous Java function to the function type expected by the Scala API.
+     */
+    public static <X, Y> scala.Function2<X, Context, Future<Y>> toScala(final StatelessAsyncFunction<X, Y> f)
+    {
+        return new AsyncAdapter<X, Y>(f);
+    }
+
+    /**
+     * Converts a CompletionStage into a Scala Future.
+     */
+    public static <Y> Future<Y> toFuture(CompletionStage<Y> stage)
+    {
+        final Promise<Y> p = Promise$.MODULE$.<Y>apply();
+        stage.whenComplete((result, error) -> 
+        {
+            if (error == null)
+            {
+                p.success(result);
+            }
+            else
+            {
+                p.failure(unwrap(error));
+            }
+        });
+        return p.future();
+    }
+
+    private static Throwable unwrap(Throwable t)
+    {
+        return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+
+    private static final class AsyncAdapter<X, Y> 
+        extends AbstractFunction2<X, Context, Future<Y>> 
+        implements java.io.Serializable
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final StatelessAsyncFunction<X, Y> f;
+
+        AsyncAdapter(StatelessAsyncFunction<X, Y> f)
+        {
+            this.f = f;
+        }
+
+        public Future<Y> apply(X input, Context ctx)
+        {
+            try
+            {
+                return toFuture(f.apply(input, ctx));
+            }
+            catch (Exception e)
+            {
+                return scala.concurrent.Future$.MODULE$.<Y>failed(e);
+            }
+        }
+    }
+}
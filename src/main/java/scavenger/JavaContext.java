@@ -0,0 +1,119 @@
+package scavenger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import scala.collection.JavaConverters;
+import scala.concurrent.Future;
+import scala.util.Try;
+import scala.runtime.AbstractFunction1;
+import scala.runtime.BoxedUnit;
+
+/**
+ * Java facade of a {@link Context}, which returns CompletableFutures instead of Scala Futures.
+ *
+ * Drivers can chain their reactions to the results with the usual
+ * CompletableFuture methods, or receive the results of a batch of jobs
+ * in completion order through a {@link ResultStream}:
+ *
+ *   JavaContext client = new JavaContext(scavengerContext());
+ *   CompletableFuture<Integer> y = client.submit(square.apply(x));
+ *   ResultStream<Integer> ys = client.submitAll(jobs);
+ *
+ * The futures are completed on the execution context of the wrapped context.
+ *
+ * @see ResultStream
+ */
+public final class JavaContext
+{
+    private final Context ctx;
+
+    public JavaContext(Context ctx)
+    {
+        this.ctx = ctx;
+    }
+
+    /** The wrapped Scala context */
+    public Context context()
+    {
+        return ctx;
+    }
+
+    /** Submits a job, the returned future is completed with its result */
+    public <X> CompletableFuture<X> submit(Computation<X> job)
+    {
+        return toCompletableFuture(ctx.submit(job));
+    }
+
+    /**
+     * Submits all jobs at once, the returned closed stream delivers
+     * their results in the order in which they complete.
+     */
+    public <X> ResultStream<X> submitAll(Iterable<? extends Computation<X>> jobs)
+    {
+        ResultStream<X> results = new ResultStream<X>();
+        submitTo(results, jobs);
+        results.close();
+        return results;
+    }
+
+    /** Submits a batch of jobs and adds them to an open result stream */
+    public <X> List<CompletableFuture<X>> submitTo(
+        ResultStream<X> results,
+        Iterable<? extends Computation<X>> jobs
+    )
+    {
+        List<Computation<X>> batch = new ArrayList<Computation<X>>();
+        for (Computation<X> job : jobs)
+        {
+            batch.add(job);
+        }
+        // the whole batch is sent to the node at once
+        List<CompletableFuture<X>> submitted = new ArrayList<CompletableFuture<X>>();
+        for (Future<X> f : JavaConverters.seqAsJavaListConverter(ctx.submitEach(JavaConverters.asScalaBufferConverter(batch).asScala())).asJava())
+        {
+            CompletableFuture<X> cf = toCompletableFuture(f);
+            results.add(cf);
+            submitted.add(cf);
+        }
+        return submitted;
+    }
+
+    /** Broadcasts a value to all nodes, see {@link Context#broadcast} */
+    public <X> Broadcast<X> broadcast(String id, X value)
+    {
+        return ctx.broadcast(id, value);
+    }
+
+    /** Drops a broadcast value, see {@link Context#unbroadcast} */
+    public void unbroadcast(Broadcast<?> handle)
+    {
+        ctx.unbroadcast(handle);
+    }
+
+    /**
+     * Converts a Scala Future into a CompletableFuture,
+     * callbacks run on the execution context of the wrapped context.
+     */
+    public <X> CompletableFuture<X> toCompletableFuture(Future<X> future)
+    {
+        final CompletableFuture<X> result = new CompletableFuture<X>();
+        future.onComplete(new AbstractFunction1<Try<X>, BoxedUnit>()
+        {
+            public BoxedUnit apply(Try<X> t)
+            {
+                if (t.isSuccess())
+                {
+                    result.complete(t.get());
+                }
+                else
+                {
+                    result.completeExceptionally(t.failed().get());
+                }
+                return BoxedUnit.UNIT;
+            }
+        }, ctx.executionContext());
+        return result;
+    }
+}
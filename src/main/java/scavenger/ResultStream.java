@@ -0,0 +1,213 @@
+package scavenger;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stream of results that are delivered in the order in which they complete,
+ * not in the order in which they were submitted.
+ *
+ * Results can either be pulled by a single driver thread, which waits without spinning:
+ *
+ *   ResultStream<Integer> results = client.submitAll(jobs);
+ *   while (results.pending() > 0)
+ *   {
+ *       CompletableFuture<Integer> next = results.take(); // already completed
+ *       ...
+ *   }
+ *
+ * or pushed to a {@link Subscriber}. The stream can be extended with new jobs while
+ * the results of the previous jobs are processed (see {@link #add}), until it is closed.
+ * Streams returned by {@link JavaContext#submitAll} are closed from the beginning.
+ *
+ * @see JavaContext
+ */
+public final class ResultStream<X>
+{
+    /**
+     * Receives the results of a stream, one at a time, in completion order.
+     *
+     * The methods are never invoked concurrently.
+     */
+    public interface Subscriber<X>
+    {
+        /** Called with the result of a successful job */
+        void onNext(X result);
+
+        /** Called with the cause of a failed job, the stream continues afterwards */
+        void onError(Throwable error);
+
+        /** Called once the stream is closed and all results have been delivered */
+        void onComplete();
+    }
+
+    private final LinkedBlockingQueue<CompletableFuture<X>> completed =
+        new LinkedBlockingQueue<CompletableFuture<X>>();
+    private final AtomicInteger pending = new AtomicInteger(0);
+    private final Object lock = new Object();
+    private Subscriber<? super X> subscriber = null;
+    private boolean closed = false;
+    private boolean completeSignaled = false;
+
+    /** Creates an open stream without any jobs */
+    public ResultStream() {}
+
+    /**
+     * Adds a job to the stream, its result is delivered as soon as it completes.
+     *
+     * @throws IllegalStateException if the stream has been closed
+     */
+    public ResultStream<X> add(CompletionStage<? extends X> job)
+    {
+        synchronized (lock)
+        {
+            if (closed)
+            {
+                throw new IllegalStateException("ResultStream: cannot add jobs to a closed stream");
+            }
+            pending.incrementAndGet();
+        }
+        final CompletableFuture<X> result = new CompletableFuture<X>();
+        job.whenComplete((x, error) ->
+        {
+            if (error == null)
+            {
+                result.complete(x);
+            }
+            else
+            {
+                result.completeExceptionally(unwrap(error));
+            }
+            synchronized (lock)
+            {
+                if (subscriber == null)
+                {
+                    completed.add(result);
+                }
+                else
+                {
+                    deliver(result);
+                }
+            }
+        });
+        return this;
+    }
+
+    /** No further jobs can be added after the stream is closed */
+    public void close()
+    {
+        synchronized (lock)
+        {
+            closed = true;
+            signalCompleteIfDone();
+        }
+    }
+
+    /** Number of jobs whose results have not been taken or delivered yet */
+    public int pending()
+    {
+        return pending.get();
+    }
+
+    /**
+     * Waits for the next completed job and returns it.
+     * The returned future is already completed, possibly exceptionally.
+     *
+     * @throws IllegalStateException if there are no pending jobs, or the stream has a subscriber
+     */
+    public CompletableFuture<X> take() throws InterruptedException
+    {
+        checkPullable();
+        if (pending.get() == 0)
+        {
+            throw new IllegalStateException("ResultStream: no pending jobs");
+        }
+        CompletableFuture<X> next = completed.take();
+        pending.decrementAndGet();
+        return next;
+    }
+
+    /**
+     * Waits at most the specified time for the next completed job.
+     *
+     * @return the completed job, or null if no job completed in time
+     */
+    public CompletableFuture<X> poll(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        checkPullable();
+        CompletableFuture<X> next = completed.poll(timeout, unit);
+        if (next != null)
+        {
+            pending.decrementAndGet();
+        }
+        return next;
+    }
+
+    /**
+     * Pushes all results to the subscriber, including the results that
+     * completed before the subscription. A stream accepts only one subscriber,
+     * its results can not be pulled afterwards.
+     */
+    public void subscribe(Subscriber<? super X> s)
+    {
+        synchronized (lock)
+        {
+            if (subscriber != null)
+            {
+                throw new IllegalStateException("ResultStream: already subscribed");
+            }
+            subscriber = s;
+            CompletableFuture<X> next;
+            while ((next = completed.poll()) != null)
+            {
+                deliver(next);
+            }
+            signalCompleteIfDone();
+        }
+    }
+
+    // must be called while holding the lock
+    private void deliver(CompletableFuture<X> result)
+    {
+        pending.decrementAndGet();
+        try
+        {
+            subscriber.onNext(result.join());
+        }
+        catch (CompletionException e)
+        {
+            subscriber.onError(unwrap(e));
+        }
+        signalCompleteIfDone();
+    }
+
+    // must be called while holding the lock
+    private void signalCompleteIfDone()
+    {
+        if (subscriber != null && closed && pending.get() == 0 && !completeSignaled)
+        {
+            completeSignaled = true;
+            subscriber.onComplete();
+        }
+    }
+
+    private void checkPullable()
+    {
+        synchronized (lock)
+        {
+            if (subscriber != null)
+            {
+                throw new IllegalStateException("ResultStream: results are pushed to a subscriber");
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable t)
+    {
+        return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+}
@@ -1,12 +1,12 @@
 package scavenger;
 
 import scavenger.*;
-import scala.Function2;
-import scala.runtime.AbstractFunction2;
 
+import scala.concurrent.Await;
 import scala.concurrent.Future;
-import static akka.dispatch.Futures.future;
+import scala.concurrent.duration.Duration;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Used to create a Function that can be submited to a Worker.
@@ -16,25 +16,88 @@ import java.util.concurrent.Callable;
  *
  * @author Helen Harman
  */
-public abstract class ScavengerFunction<X> extends AbstractFunction2<X, Context, Future<X>> implements java.io.Serializable, Callable<X>
+public abstract class ScavengerFunction<X> extends SynchronousFunction<X, X> implements java.io.Serializable, Callable<X>
 {
     protected X value; // what the computation will be performed on
     protected transient Context ctx; // the context to submit jobs and futures to
     protected package$ scavengerAlgorithm = package$.MODULE$; // @see ScavengerAppJ                                                              
     protected Computation$ scavengerComputation = Computation$.MODULE$;
     /**
-     * Creates the Future which is submitted to scavenger
+     * Computes the result directly on the calling thread (a compute thread of the node).
      * 
      * @param value data the computation will be performed on
      * @param ctx context the jobs and futures will be submitted to
-     * @return This object as a Future submitted to the given Context (eg. scavengerContext)
+     * @return the result of call()
      */
-    public Future<X> apply(X value, Context ctx) 
+    public X applySync(X value, Context ctx) 
     {
         this.value = value;
         this.ctx = ctx;
-        Callable<X> f = this;
-        return future(f, ctx.executionContext());
+        try
+        {
+            return call();
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
     } 
+    
+    /**
+     * Override and return true if call() blocks on I/O (files, network, databases, ...).
+     * Blocking functions run on virtual threads if the JVM supports them, 
+     * and on a separate pool of the node otherwise (see dispatchers.blocking-mode in reference.conf).
+     * Public, because it overrides SynchronousFunction.isBlocking, which the atoms read.
+     * 
+     * @return whether call() blocks
+     */
+    public boolean isBlocking()
+    {
+        return false;
+    }
+    
+    /**
+     * How long broadcastValue(...) waits for a broadcast value by default.
+     */
+    public static final long BROADCAST_TIMEOUT_SECONDS = 300;
+
+    /**
+     * Obtains the value of a broadcast registered with Context.broadcast(...).
+     * The value is transferred to this node only once, and is kept there afterwards.
+     * Waits at most BROADCAST_TIMEOUT_SECONDS, because the compute thread is 
+     * occupied while waiting.
+     * 
+     * @param handle the handle returned by Context.broadcast(...)
+     * @return the broadcast value
+     */
+    protected <B> B broadcastValue(Broadcast<B> handle)
+    {
+        return broadcastValue(handle, BROADCAST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Obtains the value of a broadcast, waits at most for the specified time.
+     * 
+     * @param handle the handle returned by Context.broadcast(...)
+     * @param timeout how long to wait for the value
+     * @param unit the unit of the timeout
+     * @return the broadcast value
+     * @throws RuntimeException if the value could not be obtained in time
+     */
+    protected <B> B broadcastValue(Broadcast<B> handle, long timeout, TimeUnit unit)
+    {
+        try
+        {
+            return Await.result(handle.value(ctx), Duration.create(timeout, unit));
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException("Could not obtain " + handle, e);
+        }
+    }
 }
 
@@ -0,0 +1,22 @@
+package scavenger;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Stateless Java function that computes its result asynchronously.
+ * 
+ * Can be shared by any number of concurrently running jobs, just like StatelessFunction.
+ * Useful for atoms that submit further jobs, or that use asynchronous libraries.
+ *
+ * @see Atoms
+ */
+@FunctionalInterface
+public interface StatelessAsyncFunction<X, Y> extends java.io.Serializable
+{
+    /**
+     * @param input data the computation is performed on
+     * @param ctx context that can be used to submit further jobs
+     * @return stage that completes with the result
+     */
+    CompletionStage<Y> apply(X input, Context ctx) throws Exception;
+}
@@ -0,0 +1,23 @@
+package scavenger;
+
+/**
+ * Stateless Java function that computes its result synchronously.
+ * 
+ * Unlike ScavengerFunction, it does not store the input or the context in fields,
+ * so a single instance (or lambda) can be shared by any number of concurrently running jobs.
+ * Atoms are created with the static methods in Atoms, for example:
+ * 
+ *   AtomicAlgorithm<Integer, Integer> square = Atoms.expensive("square", (x, ctx) -> x * x);
+ *
+ * @see Atoms
+ */
+@FunctionalInterface
+public interface StatelessFunction<X, Y> extends java.io.Serializable
+{
+    /**
+     * @param input data the computation is performed on
+     * @param ctx context that can be used to submit further jobs
+     * @return the result
+     */
+    Y apply(X input, Context ctx) throws Exception;
+}
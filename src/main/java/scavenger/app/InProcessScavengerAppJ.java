@@ -0,0 +1,35 @@
+package scavenger.app;
+
+import scavenger.*;
+import scavenger.app.InProcessScavengerApp;
+
+/**
+ * Used to run a Java scavenger application inside of a single JVM, without actors.
+ * Can be used instead of LocalScavengerAppJ.
+ * 
+ * @see InProcessScavengerApp
+ */
+public abstract class InProcessScavengerAppJ extends InProcessScavengerApp 
+{  
+    protected package$ scavengerAlgorithm = package$.MODULE$; // @see ScavengerAppJ                                                              
+    protected Computation$ scavengerComputation = Computation$.MODULE$; 
+    
+    /**
+     * 
+     * @param parallelism number of threads used for the computations
+     */
+    public InProcessScavengerAppJ(int parallelism)
+    {
+        super(parallelism);   
+    } 
+    
+    protected boolean scavengerStarted = false;
+    public void startScavenger()
+    {
+        if (!scavengerStarted)
+        {
+            scavengerInit();
+            scavengerStarted = true;
+        }
+    }
+}
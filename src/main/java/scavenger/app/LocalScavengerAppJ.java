@@ -1,5 +1,8 @@
 package scavenger.app;
 
+import java.util.concurrent.TimeUnit;
+import scala.concurrent.Await;
+import scala.concurrent.duration.Duration;
 import scavenger.*;
 import scavenger.app.LocalScavengerApp;
 
@@ -23,14 +26,14 @@ public abstract class LocalScavengerAppJ extends LocalScavengerApp
     } 
     
     protected boolean scavengerStarted = false;
+    protected long startupTimeoutSeconds = 60; // maximum time startScavenger() waits for the service to become ready
     public void startScavenger()
     {
         if (!scavengerStarted)
         {
-            scavengerInit();
-            try // must sleep after scavengerInit() is called.
+            try // wait until the master and the workers are connected
             {
-                Thread.sleep(3000);
+                Await.result(scavengerInit(), Duration.create(startupTimeoutSeconds, TimeUnit.SECONDS));
             }
             catch (Exception e) 
             { 
@@ -7,6 +7,8 @@ import scavenger.backend.seed.Seed;
 import scavenger.backend.seed.*;
 import scavenger.backend.worker.*;
 import scavenger.*;
+import scala.concurrent.Future;
+import scala.runtime.BoxedUnit;
 /** 
   * Allows a ScanvengerNode to be created in Java
   * Used for the general Worker, Seed and Master code.
@@ -55,10 +57,11 @@ abstract class ScavengerNodeJ implements ScavengerNode {
   
     /**
      * Starts the actor. If Actor is a Worker or Master, the will contect to the seed.
+     * @return future that completes when the node is ready
      */
-    public void scavengerInit()
+    public Future<BoxedUnit> scavengerInit()
     {
-        ScavengerNode$class.scavengerInit(this);
+        return ScavengerNode$.MODULE$.initialize(this);
     }
   
     /**
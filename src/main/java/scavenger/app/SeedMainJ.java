@@ -1,7 +1,10 @@
 package scavenger.app;
 
 import akka.actor.*;
+import akka.dispatch.Futures;
 import com.typesafe.config.Config;
+import scala.concurrent.Future;
+import scala.runtime.BoxedUnit;
 import scavenger.backend.seed.Seed;
 import scavenger.backend.seed.*;
 /** 
@@ -24,9 +27,10 @@ class SeedMainJ extends ScavengerNodeJ
     /**
      * Creates a new Seed actor within the ActorSystem.
      */
-    public void initializeActors(ActorSystem system, Config generalConfig)
+    public Future<BoxedUnit> initializeActors(ActorSystem system, Config generalConfig)
     {        
         system.actorOf(seed.props(), "seed");
+        return Futures.successful(BoxedUnit.UNIT);
     }
 
     public static void main(final String[] args)
@@ -1,7 +1,10 @@
 package scavenger.app;
 
 import akka.actor.*;
+import akka.dispatch.Futures;
 import com.typesafe.config.Config;
+import scala.concurrent.Future;
+import scala.runtime.BoxedUnit;
 import scavenger.backend.seed.Seed;
 import scavenger.backend.seed.*;
 import scavenger.util.*;
@@ -25,10 +28,11 @@ class WorkerMainJ extends ScavengerNodeJ
      * Gets the seed's configuration from the config file
      * Creates a new Worker actor within the ActorSystem. 
      */
-    public void initializeActors(ActorSystem system, Config generalConfig)
+    public Future<BoxedUnit> initializeActors(ActorSystem system, Config generalConfig)
     {                
         ActorPath seedPath = extractSeedPath(generalConfig);
         system.actorOf(worker.props(seedPath), scavenger.util.RandomNameGenerator.randomName());
+        return Futures.successful(BoxedUnit.UNIT);
     }
 
     public static void main(final String[] args)
@@ -25,23 +25,13 @@ import static akka.dispatch.Futures.sequence;
  * A basic example of how to create a Local Scavenger Java application.
  */
 class LocalDemoJ extends LocalScavengerAppJ {
-    ScavengerFunction<Integer> f0 = new ScavengerFunction<Integer>()
+    // A stateless function can be shared by any number of concurrent jobs.
+    // To submit a new job ctx.submit(...) can be used
+    StatelessFunction<Integer, Integer> f0 = (value, ctx) -> 
     {
-        // Value computation is being applied to can be accessed using "this.value"
-        // To submit a new job this.ctx.submit(...) can be used
-        public Integer call() 
-        {
-            try
-            {
-                Thread.sleep(3000);
-            }
-            catch (Exception e) 
-            { 
-                e.printStackTrace();
-            }  
-            System.out.println(this.toString() + " was paused");
-            return this.value*this.value;
-        }
+        Thread.sleep(3000);
+        System.out.println("f0(" + value + ") was paused");
+        return value * value;
     };
 
     public LocalDemoJ(int numWorkers)
@@ -53,7 +43,7 @@ class LocalDemoJ extends LocalScavengerAppJ {
     {
         startScavenger();
         Computation<Integer> computationData = scavengerComputation.apply("Computation_1", 2).cacheGlobally();
-        Algorithm<Integer, Integer> algorithm = scavengerAlgorithm.expensive("id", f0).cacheGlobally();
+        Algorithm<Integer, Integer> algorithm = Atoms.expensive("id", f0).cacheGlobally();
         
         Computation<Integer> computation1 = algorithm.apply(computationData);
         Computation<Integer> computation2 = algorithm.apply(computation1);
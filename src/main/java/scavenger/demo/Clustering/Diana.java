@@ -16,6 +16,8 @@ import java.util.Queue;
 import java.util.PriorityQueue;
 import java.util.Date;
 import java.util.Calendar;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import scala.concurrent.Await;
 import scala.concurrent.ExecutionContext;
@@ -56,7 +58,7 @@ public class Diana<T> extends ScavengerAppJ
     private TreeNode<T> bestResult = null; 
     protected double smallestError = Double.MAX_VALUE;
     protected boolean isClustered = false;
-    protected int numJobs = 0;
+    protected static final long POLL_INTERVAL_MILLIS = 100;
     
     /////// Constructors ///////
     
@@ -205,7 +207,6 @@ public class Diana<T> extends ScavengerAppJ
         //dianaDistanceFunctions.setScavengerContext(scavengerContext());                      
         
         PriorityQueue<TreeNode<T>> results = new PriorityQueue<TreeNode<T>>(1, new TreeNode<T>());
-        numJobs = 0;
         smallestError = Double.MAX_VALUE;
         isClustered = false;
         
@@ -223,32 +224,31 @@ public class Diana<T> extends ScavengerAppJ
         Calendar calendar = Calendar.getInstance(); 
         calendar.add(Calendar.SECOND, runTimeSeconds);
         Date endTime = calendar.getTime();
-        while (!isClustered && endTime.after(new Date()) && ((results.size() != 0) || (numJobs != 0)))
+        JavaContext client = javaContext();
+        ResultStream<TreeNode<T>> finishedJobs = new ResultStream<TreeNode<T>>();
+        while (!isClustered && endTime.after(new Date()) && ((results.size() != 0) || (finishedJobs.pending() != 0)))
         {      
             if(results.size() > 0)  
             {
                 TreeNode<T> result = results.poll();                
                 for(int i = 0; i < result.getToBeSplitOn().size(); i++)
                 {
-                    numJobs = numJobs + 1;
                     ScavengerFunction<TreeNode<T>> run = new CreateNewSplinter(result.getToBeSplitOn().get(i), dianaDistanceFunctions, numberOfClusters);
                     Algorithm<TreeNode<T>, TreeNode<T>> algorithm = scavengerAlgorithm.expensive("createNewSplinter", run);
                     Computation<TreeNode<T>> computation = scavengerComputation.apply("node_"+result+result.getToBeSplitOn().get(i), result);                    
                     
                     Computation<TreeNode<T>> applyComputation = algorithm.apply(computation).cacheGlobally();
-                    Future future = scavengerContext().submit(applyComputation);
-                    
-                    future.onSuccess(new OnSuccess<TreeNode<T>>() 
-                                     {
-                                         public void onSuccess(TreeNode<T> currentResult) 
-                                         {
-                                             setIsClustered(currentResult); 
-                                             results.add(currentResult);
-                                             decrementNumberOfJobs();
-                                         }
-                                     }, scavengerContext().executionContext());
+                    finishedJobs.add(client.submit(applyComputation));
                 }
-            }              
+            }
+            
+            // waits for the next finished job (without busy waiting), unless there are still results to split
+            TreeNode<T> currentResult = nextResult(finishedJobs, results.size() == 0);
+            if (currentResult != null)
+            {
+                setIsClustered(currentResult); 
+                results.add(currentResult);
+            }
             this.handleKeyboardInput(); 
         }
         
@@ -258,12 +258,28 @@ public class Diana<T> extends ScavengerAppJ
     }
     
     /**
-     *  Called from OnSuccess. As OnSuccess is an inner class it should not modify the outer class attributes.
+     * Returns the result of the next finished job, failed jobs are skipped.
      * 
+     * @param wait If true, waits up to POLL_INTERVAL_MILLIS for a job to finish, so that keyboard input is still handled
+     * @return null if no job has finished
      */
-    protected void decrementNumberOfJobs()
+    protected <R> R nextResult(ResultStream<R> finishedJobs, boolean wait)
     {
-        numJobs = numJobs - 1;
+        try
+        {
+            CompletableFuture<R> next = finishedJobs.poll(wait ? POLL_INTERVAL_MILLIS : 0, TimeUnit.MILLISECONDS);
+            if (next == null || next.isCompletedExceptionally())
+            {
+                return null;
+            }
+            return next.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            isClustered = true;
+            return null;
+        }
     }
     
     /**
@@ -273,8 +289,6 @@ public class Diana<T> extends ScavengerAppJ
     {
         try 
         {
-            //Thread.sleep(10); 
-            Thread.yield();
             if(System.in.available() > 0)
             {
                 int keyboardInput = System.in.read();
@@ -81,7 +81,6 @@ public class BottomUp<T> extends Diana
         //dianaDistanceFunctions.setScavengerContext(scavengerContext());              
      
         PriorityQueue<TreeNodeList<T>> results = new PriorityQueue<TreeNodeList<T>>(1, new TreeNodeList<T>());
-        numJobs = 0;
         smallestError = Double.MAX_VALUE;
         isClustered = false;
         
@@ -98,33 +97,31 @@ public class BottomUp<T> extends Diana
         Calendar calendar = Calendar.getInstance(); 
         calendar.add(Calendar.SECOND, runTimeSeconds);
         Date endTime = calendar.getTime();
-        while (!isClustered && endTime.after(new Date()) && ((results.size() != 0) || (numJobs != 0)))
+        JavaContext client = javaContext();
+        ResultStream<TreeNodeList<T>> finishedJobs = new ResultStream<TreeNodeList<T>>();
+        while (!isClustered && endTime.after(new Date()) && ((results.size() != 0) || (finishedJobs.pending() != 0)))
         {                            
             if(results.size() > 0)  
             {
                 TreeNodeList<T> result = results.poll();                
                 for(int i = 0; i < result.getJoinNodes().size(); i++)
                 {
-                    numJobs = numJobs + 1;
-                    
                     ScavengerFunction<TreeNodeList<T>> run = new CreateNewJoin(i, dianaDistanceFunctions, numberOfClusters, startNumberOfTreeNodes);
                     Algorithm<TreeNodeList<T>, TreeNodeList<T>> algorithm = scavengerAlgorithm.expensive("CreateNewJoin", run);
                     Computation<TreeNodeList<T>> computation = scavengerComputation.apply("node_"+result+result.getJoinNodes().get(i), result);                    
                     
                     Computation<TreeNodeList<T>> applyComputation = algorithm.apply(computation);//.cacheGlobally();
-                    Future future = scavengerContext().submit(applyComputation);
-                    
-                    future.onSuccess(new OnSuccess<TreeNodeList<T>>() 
-                                     {
-                                         public void onSuccess(TreeNodeList<T> result) 
-                                         {
-                                             setIsClustered(result); 
-                                             results.add(result);
-                                             decrementNumberOfJobs();
-                                         }
-                                     }, scavengerContext().executionContext());
+                    finishedJobs.add(client.submit(applyComputation));
                 }
             }
+            
+            // waits for the next finished job (without busy waiting), unless there are still results to join
+            TreeNodeList<T> currentResult = (TreeNodeList<T>)nextResult(finishedJobs, results.size() == 0);
+            if (currentResult != null)
+            {
+                setIsClustered(currentResult); 
+                results.add(currentResult);
+            }
             this.handleKeyboardInput();  
         }
         
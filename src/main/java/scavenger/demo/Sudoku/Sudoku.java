@@ -156,52 +156,57 @@ class Sudoku extends ScavengerAppJ //LocalScavengerAppJ
     
     /**
      * Alternative method for solving Sudoku
-     * Using Stack and onSuccess, rather than waiting for all current jobs to finish.
+     * Using Stack and a ResultStream, rather than waiting for all current jobs to finish.
      * This way Workers will always be busy, rather than waiting for all Workers to be finished.
+     * The results are processed in the order in which the jobs finish.
      */
     public void runAlternative()
     {
+        startScavenger();
         List<List<Integer>> board = createBoard();
         Stack<List<List<Integer>>> possibleBoards = new Stack<List<List<Integer>>>(); // Considered queue, but most complete boards might be a the top of the stack, so could finish quicker. (Could also be slower, if first boards are not possibles)
-        List<Future<List<List<Integer>>>> futures = new ArrayList<Future<List<List<Integer>>>>();
         possibleBoards.push(board);
         
+        JavaContext client = javaContext();
+        ResultStream<List<List<Integer>>> finishedJobs = new ResultStream<List<List<Integer>>>();
+        
         solved = false;
         while(!solved)
         {
-            if (!possibleBoards.empty())
+            while (!possibleBoards.empty())
             {
                 List<List<Integer>> newBoard = possibleBoards.pop();
                 
                 ScavengerFunction<List<List<Integer>>> run = new FillKnowValues();
                 Algorithm<List<List<Integer>>, List<List<Integer>>> algorithm = scavengerAlgorithm.expensive("id", run).cacheGlobally();
                 Computation<List<List<Integer>>> computationData = scavengerComputation.apply("Computation_" + newBoard, newBoard).cacheGlobally();
-                Future<List<List<Integer>>> future = scavengerContext().submit(algorithm.apply(computationData));
-                            
-                future.onSuccess(new OnSuccess<List<List<Integer>>>() 
-                {
-                    public void onSuccess(List<List<Integer>> result) 
-                    {
-                        List<List<List<Integer>>> boards = processResult(result); // checks if it has been solved
-                        for (List<List<Integer>> newBoard : boards)
-                        {
-                            possibleBoards.push(newBoard);   
-                        }
-                    }
-                }, scavengerContext().executionContext());
-                
-                futures.add(future);
+                finishedJobs.add(client.submit(algorithm.apply(computationData)));
+            }
+            
+            if (finishedJobs.pending() == 0)
+            {
+                System.out.println("FAILED : Not possible to solve board");
+                break;
             }
             
+            // Wait for the next job to finish
             try
             {
-                Thread.yield();
+                List<List<List<Integer>>> boards = processResult(finishedJobs.take().join()); // checks if it has been solved
+                for (List<List<Integer>> nextBoard : boards)
+                {
+                    possibleBoards.push(nextBoard);   
+                }
+            }
+            catch(InterruptedException e) 
+            { 
+                Thread.currentThread().interrupt();
+                break;
             }
             catch(Exception e) 
             { 
                 e.printStackTrace(); 
             }            
-            //TODO check if possible
         }
        scavengerShutdown();
     }
@@ -340,6 +345,6 @@ class Sudoku extends ScavengerAppJ //LocalScavengerAppJ
     {    
         Sudoku sudoku = new Sudoku(4);
         sudoku.run(); // using list and Await
-        //sudoku.runAlternative(); // using Stack and onSuccess
+        //sudoku.runAlternative(); // using Stack and a ResultStream
     }
 }
@@ -141,8 +141,43 @@ with ((X, Context) => Future[Y]) { outer =>
   def difficulty: Difficulty
   def apply(x: X, ctx: Context): Future[Y]
 
+  /** Whether this algorithm blocks on I/O. Blocking algorithms 
+    * are executed on the `blockingExecutionContext` of the node.
+    */
+  def isBlocking: Boolean = false
+
   def apply(computation: Computation[X]): Computation[Y] = {
-    computation.flatMap(identifier, difficulty)(this)
+    if (isBlocking) {
+      computation.flatMap(identifier, difficulty){ (x, ctx) => 
+        // the call itself might block, so it must happen on a blocking thread
+        val blockingCtx = ctx.forBlocking
+        val started = Future{ outer(x, blockingCtx) }(blockingCtx.executionContext)
+        started.flatMap{ f => f }(blockingCtx.executionContext)
+      }
+    } else {
+      computation.flatMap(identifier, difficulty)(this)
+    }
+  }
+
+  /** Returns an algorithm that does exactly the same, but is executed
+    * on the `blockingExecutionContext` (e.g. on virtual threads).
+    */
+  def blocking: AtomicAlgorithm[X, Y] = new AtomicAlgorithm[X, Y] {
+    def identifier = outer.identifier
+    def difficulty = outer.difficulty
+    def apply(x: X, ctx: Context) = outer(x, ctx)
+    override def isBlocking = true
   }
 }
 
+/** Mixin for structural `AtomicAlgorithm`s (projections, evaluation)
+  * that can be evaluated synchronously, without any scheduling.
+  *
+  * If a `Cheap` computation is obtained by applying such an algorithm to an 
+  * explicit input, its result is computed inline (see 
+  * `Computation.inlineResult`).
+  */
+trait InlineEvaluation[-X, +Y] { self: AtomicAlgorithm[X, Y] =>
+  private[scavenger] def applyInline(x: X): Y
+}
+
@@ -0,0 +1,33 @@
+package scavenger
+
+import scala.concurrent.Future
+import scavenger.categories.formalccc
+
+/** Handle to a large read-only value that has been registered with a
+  * `Context` by `Context.broadcast`.
+  *
+  * Jobs should close over the handle instead of closing over the value
+  * itself: the handle consists of nothing but an identifier, so it is
+  * cheap to serialize. The actual value is pulled lazily by each compute
+  * node on first use, and cached there by identifier, so that it travels
+  * over the wire at most once per node.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+class Broadcast[+X] private[scavenger] (val identifier: formalccc.Elem)
+extends Serializable {
+
+  /** Obtains the broadcast value on the node that is represented by `ctx`.
+    */
+  def value(ctx: Context): Future[X] = ctx.resolveBroadcast(this)
+
+  override def toString = "Broadcast{%s}".format(identifier)
+
+  override def equals(other: Any): Boolean = other match {
+    case b: Broadcast[_] => b.identifier == identifier
+    case _ => false
+  }
+
+  override def hashCode: Int = identifier.hashCode
+}
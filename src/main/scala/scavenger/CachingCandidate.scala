@@ -0,0 +1,31 @@
+package scavenger
+
+import scavenger.categories.formalccc
+
+/** Entry of the caching report (see `Context.cachingReport`).
+  *
+  * Describes how often a computation without any caching policy 
+  * has been computed by the workers, how long it took on average, and 
+  * how large its result is (in serialized form, `-1` if the result is not
+  * serializable). 
+  * `savedMillis` estimates the time that would have been saved if the 
+  * result had been cached after the first computation.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+case class CachingCandidate(
+  identifier: formalccc.Elem,
+  computations: Int,
+  averageMillis: Double,
+  resultBytes: Long,
+  autoCached: Boolean
+) {
+  def savedMillis: Double = (computations - 1) * averageMillis
+
+  override def toString = 
+    identifier + ": computed " + computations + " times, " + 
+    "avg " + "%.1f".format(averageMillis) + " ms, " + 
+    (if (resultBytes < 0) "not serializable" else resultBytes + " bytes") + 
+    (if (autoCached) ", cached automatically" else "")
+}
@@ -2,6 +2,7 @@ package scavenger
 
 import scala.concurrent.Future
 import scala.concurrent.ExecutionContext
+import scala.util.Try
 import scavenger.categories.formalccc
 
 /** Interface for describing computation-valued requests to the 
@@ -52,6 +53,35 @@ trait Computation[+X] extends scala.Serializable { outer =>
     mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
   ): Future[Computation[X]]
 
+  /** Tries to obtain the result synchronously, without scheduling and
+    * without any `Future`s.
+    *
+    * Returns `None` for everything except structural combinators 
+    * (values, pairs, projections, cheap evaluations) 
+    * whose inputs are explicit values themselves.
+    */
+  private[scavenger] def inlineResult: Option[Try[X]] = None
+
+  /** If this computation consists of a single call of a
+    * `SynchronousAlgorithm` on an input with an `inlineResult`,
+    * returns a function that performs this call synchronously.
+    */
+  private[scavenger] def synchronousEvaluation: Option[Context => X] = None
+
+  /** Direct subcomputations of this computation. 
+    *
+    * `None` means that the structure of this computation is unknown, 
+    * such computations can be simplified only by `simplify`.
+    * Used by the `DagPlanner` of the backend.
+    */
+  private[scavenger] def children: Option[List[Computation[Any]]] = None
+
+  /** Rebuilds this computation from new subcomputations, which must be
+    * equivalent to the `children`, and must be given in the same order.
+    */
+  private[scavenger] def withChildren(newChildren: List[Computation[Any]]):
+    Computation[X] = this
+
   /** Applies simplification to `this`, if necessary.
     */
   private[scavenger] def simplifySelfIfNecessary(
@@ -95,6 +125,10 @@ trait Computation[+X] extends scala.Serializable { outer =>
         for(simpler <- simplifiedOuter) 
           yield simpler.withCachingPolicy(newCachingPolicy)
       }
+      override private[scavenger] def children = Some(List(outer))
+      override private[scavenger] def withChildren(
+        cs: List[Computation[Any]]
+      ) = cs.head.asInstanceOf[Computation[X]].withCachingPolicy(newCachingPolicy)
     }
 
   /** Creates new computation that does exactly the same, but is additionally
@@ -132,14 +166,12 @@ trait Computation[+X] extends scala.Serializable { outer =>
   )(
     f: (X, Context) => Future[Y]
   ): Computation[Y] = new Computation[Y] {
-    def identifier = algId(outer.identifier)
+    lazy val identifier = algId(outer.identifier)
     def compute(ctx: Context): Future[Y] = {
-      import ctx.executionContext
-      for {
-        // cxt.submit(x) is guaranteed to be equivalent to x.compute(ctx)
-        x <- ctx.submit(outer)
-        y <- f(x, ctx) 
-      } yield y
+      // the algorithm is invoked on the execution context for its difficulty
+      val dctx = ctx.forDifficulty(d).forCheckpoints(identifier)
+      // cxt.submit(x) is guaranteed to be equivalent to x.compute(ctx)
+      ctx.submit(outer).flatMap{ x => f(x, dctx) }(dctx.executionContext)
     }
     def simplify(
       ctx: Context, 
@@ -150,8 +182,25 @@ trait Computation[+X] extends scala.Serializable { outer =>
       for(simpler <- simplifiedOuter) 
         yield simpler.flatMap(algId, d)(f)
     }
+    override private[scavenger] def children = Some(List(outer))
+    override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+      cs.head.asInstanceOf[Computation[X]].flatMap(algId, d)(f)
     def cachingPolicy = CachingPolicy.Nowhere
     def difficulty = d
+    override private[scavenger] def inlineResult: Option[Try[Y]] = f match {
+      case g: InlineEvaluation[X @unchecked, Y @unchecked] if (d == Cheap) =>
+        for (tx <- outer.inlineResult) yield tx.flatMap{ x => Try(g.applyInline(x)) }
+      case _ => None
+    }
+    override private[scavenger] def synchronousEvaluation: 
+      Option[Context => Y] = f match {
+      case s: SynchronousAlgorithm[X @unchecked, Y @unchecked] =>
+        for (tx <- outer.inlineResult) yield {
+          (c: Context) => 
+            s.applySync(tx.get, c.forDifficulty(d).forCheckpoints(identifier))
+        }
+      case _ => None
+    }
   }
 
   /** Creates a computation that represents a pair of this computation and the
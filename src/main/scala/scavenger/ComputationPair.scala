@@ -2,6 +2,7 @@ package scavenger
 
 import scala.concurrent.Future
 import scala.concurrent.ExecutionContext
+import scala.util.Try
 import scavenger.categories.formalccc
 
 /** Product-construction for `Computation`s.
@@ -14,20 +15,33 @@ import scavenger.categories.formalccc
   */
 case class ComputationPair[X, Y](x: Computation[X], y: Computation[Y])
 extends Computation[(X, Y)] {
-  def identifier = formalccc.Couple(x.identifier, y.identifier)
+  lazy val identifier = formalccc.Couple(x.identifier, y.identifier)
   def difficulty = Cheap
   def cachingPolicy = CachingPolicy.Nowhere
   def compute(ctx: Context): Future[(X, Y)] = {
     ctx.submit(x).zip(ctx.submit(y))
   }
+  override private[scavenger] def inlineResult: Option[Try[(X, Y)]] = {
+    for (tx <- x.inlineResult; ty <- y.inlineResult) 
+      yield for (a <- tx; b <- ty) yield (a, b)
+  }
+  override private[scavenger] def children = Some(List(x, y))
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    ComputationPair(
+      cs(0).asInstanceOf[Computation[X]], 
+      cs(1).asInstanceOf[Computation[Y]]
+    )
   def simplify(
     ctx: Context, 
     mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
   ): Future[Computation[(X, Y)]] = {
     import ctx.executionContext
+    // start simplification of both components before waiting for any
+    val futX = x.simplifySelfIfNecessary(ctx, mustBeReplaced)
+    val futY = y.simplifySelfIfNecessary(ctx, mustBeReplaced)
     for {
-      newX <- x.simplifySelfIfNecessary(ctx, mustBeReplaced)
-      newY <- y.simplifySelfIfNecessary(ctx, mustBeReplaced)
-    } yield ComputationPair(x, y)
+      newX <- futX
+      newY <- futY
+    } yield ComputationPair(newX, newY)
   }
 }
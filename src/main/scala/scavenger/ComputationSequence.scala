@@ -0,0 +1,36 @@
+package scavenger
+
+import scala.concurrent.Future
+import scala.concurrent.ExecutionContext
+import scavenger.categories.formalccc
+
+/** Generalization of `ComputationPair` to an arbitrary number of
+  * components.
+  *
+  * Computes a sequence of values from a sequence of computations,
+  * the order of the components is preserved.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+case class ComputationSequence[X](components: List[Computation[X]])
+extends Computation[List[X]] {
+  lazy val identifier = formalccc.Tuple(components.map{ _.identifier })
+  def difficulty = Cheap
+  def cachingPolicy = CachingPolicy.Nowhere
+  def compute(ctx: Context): Future[List[X]] = ctx.submitAll(components)
+  override private[scavenger] def children = Some(components)
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    ComputationSequence(cs.asInstanceOf[List[Computation[X]]])
+  def simplify(
+    ctx: Context,
+    mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+  ): Future[Computation[List[X]]] = {
+    import ctx.executionContext
+    val simplified = components.map{
+      c => c.simplifySelfIfNecessary(ctx, mustBeReplaced)
+    }
+    for (newComponents <- Future.sequence(simplified))
+      yield ComputationSequence(newComponents)
+  }
+}
@@ -22,20 +22,155 @@ import scala.concurrent.ExecutionContext
   * @since 2.1
   * @author Andrey Tyukin
   */
-trait Context {
+trait Context { outer =>
   implicit def executionContext: ExecutionContext
+
+  /** Execution context for computations of the specified difficulty.
+    *
+    * Atomic algorithms obtain a context whose `executionContext` is 
+    * the one returned by this method for their difficulty. 
+    * By default, all computations share the same `executionContext`.
+    */
+  def executionContextFor(difficulty: Difficulty): ExecutionContext = 
+    executionContext
+
+  /** Execution context for blocking I/O, should be used for code that
+    * waits for files, network and the like, so that it does not 
+    * occupy the threads of the computations.
+    *
+    * Atomic algorithms marked as `blocking` obtain a context whose
+    * `executionContext` is this one.
+    */
+  def blockingExecutionContext: ExecutionContext = executionContext
+
+  /** Returns an equivalent context, whose `executionContext` is 
+    * `executionContextFor(difficulty)`.
+    */
+  private[scavenger] def forDifficulty(difficulty: Difficulty): Context = 
+    withExecutionContext(executionContextFor(difficulty))
+
+  /** Returns an equivalent context, whose `executionContext` is 
+    * the `blockingExecutionContext`. Used by blocking atomic algorithms.
+    */
+  private[scavenger] def forBlocking: Context = 
+    withExecutionContext(blockingExecutionContext)
+
+  private def withExecutionContext(ec: ExecutionContext): Context = {
+    if (ec eq executionContext) this
+    else new Context {
+      implicit def executionContext = ec
+      override def executionContextFor(d: Difficulty) = 
+        outer.executionContextFor(d)
+      override def blockingExecutionContext = outer.blockingExecutionContext
+      override private[scavenger] def forDifficulty(d: Difficulty) = 
+        outer.forDifficulty(d)
+      override private[scavenger] def forBlocking = outer.forBlocking
+      def submit[X](job: Computation[X]) = outer.submit(job)
+      override def submitEach[X](jobs: Seq[Computation[X]]) = 
+        outer.submitEach(jobs)
+      def asExplicitComputation[X](job: Computation[X]) = 
+        outer.asExplicitComputation(job)
+      def broadcast[X](id: String, value: X) = outer.broadcast(id, value)
+      override def unbroadcast(b: Broadcast[_]) = outer.unbroadcast(b)
+      private[scavenger] def resolveBroadcast[X](b: Broadcast[X]) = 
+        outer.resolveBroadcast(b)
+      private[scavenger] def dumpCacheKeys = outer.dumpCacheKeys
+      override def cachingReport = outer.cachingReport
+      override def checkpoint(state: Any) = outer.checkpoint(state)
+      override def lastCheckpoint = outer.lastCheckpoint
+      override private[scavenger] def forCheckpoints(
+        id: scavenger.categories.formalccc.Elem
+      ) = {
+        val bound = outer.forCheckpoints(id)
+        if (bound eq outer) this else bound.withExecutionContext(ec)
+      }
+    }
+  }
   
   /** Guarantees to return the same value as if `job.compute(this)`
     * have been called instead.
     */
   def submit[X](job: Computation[X]): Future[X]
   
+  /** Submits a batch of jobs at once, returns a future for each job.
+    *
+    * Equivalent to submitting the jobs one by one, but contexts 
+    * backed by actors send the whole batch as a single message.
+    */
+  def submitEach[X](jobs: Seq[Computation[X]]): List[Future[X]] =
+    jobs.toList.map{ j => submit(j) }
+
+  /** Submits a batch of jobs at once (see `submitEach`), returns the 
+    * results in the original order.
+    */
+  def submitAll[X](jobs: Seq[Computation[X]]): Future[List[X]] =
+    Future.sequence(submitEach(jobs))
+
   /** Similar to `submit`, but the resulting value is
     * wrapped into a `Value`-`Computation`
     */
   def asExplicitComputation[X](job: Computation[X]): 
     Future[ExplicitComputation[X]]
 
+  /** Registers a read-only value that is shared by many jobs.
+    *
+    * The returned handle can be captured by jobs instead of the
+    * value itself. Every compute node obtains the value at most once,
+    * on first use, and keeps it in memory afterwards.
+    */
+  def broadcast[X](id: String, value: X): Broadcast[X]
+
+  /** Drops a value registered by `broadcast`, so that it does not occupy
+    * memory once no jobs need it any more. Jobs that ask for it 
+    * afterwards fail.
+    *
+    * Contexts backed by a master node drop the copies of the workers 
+    * as well.
+    */
+  def unbroadcast(b: Broadcast[_]): Unit = {}
+
+  /** Obtains the value of a previously registered `Broadcast`.
+    *
+    * Used by `Broadcast.value`.
+    */
+  private[scavenger] def resolveBroadcast[X](b: Broadcast[X]): Future[X]
+
+  /** Records the progress of a long-running atomic algorithm.
+    *
+    * Algorithms that run for a long time should call this method 
+    * periodically with a serializable `state` that allows them to resume 
+    * their work. If the job is interrupted (because it has been preempted 
+    * by the master, or because its worker has been lost), it is restarted 
+    * on some node, and the algorithm obtains the last recorded state 
+    * from `lastCheckpoint`.
+    *
+    * Throws a `JobPreempted` exception if the job should stop; the
+    * algorithm should not catch it.
+    * Contexts that do not support preemption ignore the checkpoints.
+    */
+  def checkpoint(state: Any): Unit = {}
+
+  /** The state recorded by the last `checkpoint` of an interrupted 
+    * run of the same algorithm on the same input, if any.
+    */
+  def lastCheckpoint: Option[Any] = None
+
+  /** Returns an equivalent context whose checkpoints belong to the 
+    * computation with the specified identifier.
+    */
+  private[scavenger] def forCheckpoints(
+    id: scavenger.categories.formalccc.Elem
+  ): Context = this
+
+  /** Lists the computations that have been computed repeatedly, 
+    * and would have been worth caching, starting with the most
+    * promising ones (see `caching-advisor` in `reference.conf`).
+    *
+    * Only contexts backed by a master node collect such statistics,
+    * all other contexts return an empty list.
+    */
+  def cachingReport: Future[List[CachingCandidate]] = Future.successful(Nil)
+
   /** Dumps list with identifiers of the cached intermediate
     * results, if this `Context` is backed by something that
     * actually has a cache.
@@ -46,3 +181,11 @@ trait Context {
   private[scavenger] def dumpCacheKeys: 
     List[scavenger.categories.formalccc.Elem] 
 }
+
+/** Thrown by `Context.checkpoint` when a job has been preempted, 
+  * the job is resumed later from its last checkpoint.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+class JobPreempted(message: String) extends RuntimeException(message)
@@ -0,0 +1,192 @@
+package scavenger
+
+import scala.concurrent.{Future, Promise}
+import scala.concurrent.ExecutionContext
+import scala.util.Try
+import scavenger.categories.formalccc
+
+/** Scatter/gather-computation that applies an atomic algorithm to every
+  * element of a sequence.
+  *
+  * The sequence is split into chunks of `chunkSize` elements. Each chunk
+  * becomes a separate sub-computation with the deterministic identifier
+  * `map(f)(xs{from..until})`, which is cached globally. The results of the
+  * chunks are gathered in the original order. If a chunk fails, the
+  * successfully computed chunks remain in the cache, so that submitting
+  * the same computation again recomputes only the failed chunk.
+  *
+  * If `chunkSize` is not positive, the sequence is split into
+  * roughly `DataParallel.DefaultNumChunks` chunks.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+case class ParMap[X, Y](
+  input: Computation[Seq[X]],
+  f: AtomicAlgorithm[X, Y],
+  chunkSize: Int
+) extends Computation[List[Y]] {
+  lazy val identifier = formalccc.Elementwise(f.identifier)(input.identifier)
+  def difficulty = Parallel
+  def cachingPolicy = CachingPolicy.Nowhere
+
+  def compute(ctx: Context): Future[List[Y]] = {
+    import ctx.executionContext
+    for {
+      xs <- ctx.submit(input)
+      ys <- ctx.submitAll(chunkJobs(xs))
+    } yield ys.flatten
+  }
+
+  /** Splits the input into chunks, and wraps each chunk into a
+    * separate cacheable computation.
+    */
+  private[scavenger] def chunkJobs(xs: Seq[X]): List[Computation[List[Y]]] = {
+    val mapChunk = DataParallel.MapChunk(f)
+    for (chunk <- DataParallel.chunks(input.identifier, xs, chunkSize))
+      yield mapChunk(chunk).cacheGlobally
+  }
+
+  override private[scavenger] def children = Some(List(input))
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    ParMap(cs.head.asInstanceOf[Computation[Seq[X]]], f, chunkSize)
+
+  def simplify(
+    ctx: Context,
+    mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+  ): Future[Computation[List[Y]]] = {
+    import ctx.executionContext
+    for (newInput <- input.simplifySelfIfNecessary(ctx, mustBeReplaced))
+      yield ParMap(newInput, f, chunkSize)
+  }
+}
+
+/** Scatter/gather-computation that combines all elements of a
+  * non-empty sequence with an associative binary operation.
+  *
+  * Every chunk is reduced by a separate cacheable sub-computation with
+  * the identifier `reduce(op)(xs{from..until})`, the partial results 
+  * are then combined by a `TreeReduce`, preserving their original order.
+  * Empty sequences are rejected with an `IllegalArgumentException`.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+case class ParReduce[X](
+  input: Computation[Seq[X]],
+  op: AtomicAlgorithm[(X, X), X],
+  chunkSize: Int
+) extends Computation[X] {
+  lazy val identifier = formalccc.Reduce(op.identifier)(input.identifier)
+  def difficulty = Parallel
+  def cachingPolicy = CachingPolicy.Nowhere
+
+  def compute(ctx: Context): Future[X] = {
+    import ctx.executionContext
+    for {
+      xs <- ctx.submit(input)
+      result <- ctx.submit(TreeReduce(chunkJobs(xs), 2, op))
+    } yield result
+  }
+
+  private[scavenger] def chunkJobs(xs: Seq[X]): List[Computation[X]] = {
+    if (xs.isEmpty) {
+      throw new IllegalArgumentException(
+        "ParReduce: cannot reduce empty sequence " + input.identifier
+      )
+    }
+    val reduceChunk = DataParallel.ReduceChunk(op)
+    for (chunk <- DataParallel.chunks(input.identifier, xs, chunkSize))
+      yield reduceChunk(chunk).cacheGlobally
+  }
+
+  override private[scavenger] def children = Some(List(input))
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    ParReduce(cs.head.asInstanceOf[Computation[Seq[X]]], op, chunkSize)
+
+  def simplify(
+    ctx: Context,
+    mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+  ): Future[Computation[X]] = {
+    import ctx.executionContext
+    for (newInput <- input.simplifySelfIfNecessary(ctx, mustBeReplaced))
+      yield ParReduce(newInput, op, chunkSize)
+  }
+}
+
+/** Helper methods shared by `ParMap` and `ParReduce` */
+object DataParallel {
+
+  /** Number of chunks used if no explicit chunk size is specified */
+  val DefaultNumChunks = 32
+
+  /** Splits a sequence into explicit chunks with identifiers
+    * `Chunk(id, from, until)`.
+    *
+    * The identifiers contain the bounds of the chunks, because the 
+    * results of the chunks are cached: splitting the same sequence
+    * with a different chunk size must not yield the same identifiers 
+    * for different elements.
+    */
+  private[scavenger] def chunks[X](
+    id: formalccc.Elem,
+    xs: Seq[X],
+    chunkSize: Int
+  ): List[Computation[List[X]]] = {
+    val size =
+      if (chunkSize > 0) chunkSize
+      else math.max(1, (xs.size + DefaultNumChunks - 1) / DefaultNumChunks)
+    for ((c, i) <- xs.grouped(size).toList.zipWithIndex) yield {
+      val from = i * size
+      Value(
+        formalccc.Chunk(id, from, from + c.size), 
+        c.toList, 
+        CachingPolicy.Nowhere
+      )
+    }
+  }
+
+  /** Applies `f` to every element of a chunk.
+    *
+    * The chunk jobs hold nothing but `f`: an anonymous algorithm 
+    * would capture the enclosing `ParMap`, and ship the whole input 
+    * along with every chunk.
+    */
+  private[scavenger] case class MapChunk[X, Y](f: AtomicAlgorithm[X, Y])
+  extends AtomicAlgorithm[List[X], List[Y]] {
+    def identifier = formalccc.Elementwise(f.identifier)
+    def difficulty = f.difficulty
+    def apply(chunk: List[X], ctx: Context): Future[List[Y]] = f match {
+      // synchronous atoms process the whole chunk in a single loop
+      case s: SynchronousAlgorithm[X @unchecked, Y @unchecked] => 
+        Promise[List[Y]]().complete(Try(chunk.map{ x => s.applySync(x, ctx) })).future
+      case _ => {
+        import ctx.executionContext
+        Future.traverse(chunk){ x => f(x, ctx) }
+      }
+    }
+  }
+
+  /** Combines the elements of a non-empty chunk with `op`, holds 
+    * nothing but `op` (see `MapChunk`).
+    */
+  private[scavenger] case class ReduceChunk[X](op: AtomicAlgorithm[(X, X), X])
+  extends AtomicAlgorithm[List[X], X] {
+    def identifier = formalccc.Reduce(op.identifier)
+    def difficulty = op.difficulty
+    def apply(chunk: List[X], ctx: Context): Future[X] =
+      reduceSequentially(chunk, op, ctx)
+  }
+
+  /** Combines elements of a non-empty sequence from left to right */
+  private[scavenger] def reduceSequentially[X](
+    xs: Seq[X],
+    op: AtomicAlgorithm[(X, X), X],
+    ctx: Context
+  ): Future[X] = {
+    import ctx.executionContext
+    xs.tail.foldLeft(Future.successful(xs.head)){
+      (acc, x) => acc.flatMap{ a => op((a, x), ctx) }
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package scavenger
 
-import scala.concurrent.Future
+import scala.concurrent.{Future, Promise}
+import scala.util.Try
 import scala.concurrent.ExecutionContext
 import scavenger.categories.formalccc
 
@@ -10,15 +11,26 @@ import scavenger.categories.formalccc
   * It is used in the formulation of partially applied
   * computations.
   *
+  * `Cheap` evaluations are performed synchronously, without scheduling
+  * a separate task.
+  *
   * @since 2.1
   * @author Andrey Tyukin
   */
 case class Eval[X, Y](difficulty: Difficulty) 
-extends AtomicAlgorithm[(X=>Y, X), Y] {
+extends AtomicAlgorithm[(X=>Y, X), Y] 
+with InlineEvaluation[(X=>Y, X), Y] {
   def identifier = formalccc.Eval
   def apply(fx: (X => Y, X), ctx: Context): Future[Y] = {
     import ctx.executionContext
+    if (difficulty == Cheap) {
+      Promise[Y]().complete(Try(applyInline(fx))).future
+    } else {
+      Future{ applyInline(fx) }
+    }
+  }
+  private[scavenger] def applyInline(fx: (X => Y, X)): Y = {
     val (f, x) = fx
-    Future{ f(x) }
+    f(x)
   }
 }
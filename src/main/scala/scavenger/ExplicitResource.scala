@@ -18,5 +18,6 @@ trait ExplicitComputation[+X] extends Computation[X] {
   def simplify(
     ctx: Context, 
     mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
-  ): Future[Computation[X]] = Future(this)(ctx.executionContext)
+  ): Future[Computation[X]] = Future.successful(this)
+  override private[scavenger] def children = Some(Nil)
 }
@@ -0,0 +1,259 @@
+package scavenger
+
+import scala.concurrent.{Future, Promise}
+import scala.util.{Try, Success, Failure}
+import scavenger.categories.formalccc
+
+/** Computation that applies an atomic algorithm repeatedly to the result
+  * of another computation: either exactly `maxIterations` times, or 
+  * until `converged` holds for the values before and after a step, but 
+  * at most `maxIterations` times.
+  *
+  * Unlike a chain `f(f(...f(x)))`, an iteration is a single node with an 
+  * identifier of constant size (`iterate(f, n)(x)` or 
+  * `iterateUntil(f, p, n)(x)`), and the steps are executed by a loop 
+  * on a single node.
+  *
+  * Every `checkpointEvery` steps, the loop records the number of steps
+  * and the current value with `Context.checkpoint`. The node keeps only 
+  * the latest checkpoint, and drops it when the iteration is done; an
+  * interrupted or preempted iteration resumes from it.
+  *
+  * If the `checkpointPolicy` caches results, iterations with more than 
+  * `checkpointEvery` steps are split into segments of `checkpointEvery` 
+  * steps instead, each of them is a separate job.
+  * The result of every full segment is stored with the `checkpointPolicy`
+  * under the identifier of the shorter iteration that ends there,
+  * so that an iteration that is submitted again, or that is continued
+  * with a larger number of steps, resumes from its last checkpoint.
+  * These checkpoints are never released.
+  * If `checkpointEvery` is not positive, no checkpoints are recorded.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+case class Iteration[X](
+  input: Computation[X],
+  f: AtomicAlgorithm[X, X],
+  converged: Option[AtomicAlgorithm[(X, X), Boolean]],
+  maxIterations: Int,
+  checkpointEvery: Int,
+  checkpointPolicy: CachingPolicy
+) extends Computation[X] {
+
+  require(maxIterations >= 0, "Iteration: negative number of iterations")
+
+  lazy val identifier = identifierAfter(maxIterations)
+
+  /** Whether the results of full segments are kept */
+  private def keepsSegments = checkpointPolicy.cacheGlobally || 
+    checkpointPolicy.cacheLocally || checkpointPolicy.backup
+
+  // segments that are not kept would only cost additional round trips
+  private def segmented = 
+    keepsSegments && checkpointEvery > 0 && maxIterations > checkpointEvery
+
+  // the segments are scheduled from the node that runs the iteration
+  def difficulty = if (segmented) Parallel else f.difficulty
+  def cachingPolicy = CachingPolicy.Nowhere
+
+  /** Identifier of the result after at most `n` steps */
+  private def identifierAfter(n: Int): formalccc.Elem = {
+    if (n == 0) input.identifier
+    else converged match {
+      case None => formalccc.Iterate(f.identifier, n)(input.identifier)
+      case Some(p) => 
+        formalccc.IterateUntil(f.identifier, p.identifier, n)(input.identifier)
+    }
+  }
+
+  def compute(ctx: Context): Future[X] = {
+    import ctx.executionContext
+    if (segmented) {
+      val result = Promise[X]
+      def runSegment(done: Int, x: X): Unit = {
+        val steps = math.min(checkpointEvery, maxIterations - done)
+        val last = done + steps == maxIterations
+        val segment = IterationSegment(
+          Value(identifierAfter(done), x, CachingPolicy.Nowhere),
+          f, converged, steps, identifierAfter(done + steps)
+        )
+        // only full segments end at a checkpoint
+        val job = if (steps < checkpointEvery) segment 
+          else segment.withCachingPolicy(checkpointPolicy)
+        ctx.submit(job).onComplete{
+          case Success((y, stopped)) => 
+            if (stopped || last) result.success(y) 
+            else runSegment(done + steps, y)
+          case Failure(e) => result.failure(e)
+        }
+      }
+      ctx.submit(input).onComplete{
+        case Success(x) => runSegment(0, x)
+        case Failure(e) => result.failure(e)
+      }
+      result.future
+    } else {
+      val checkpoints = 
+        if (checkpointEvery <= 0) None
+        else Some((checkpointEvery, ctx.forCheckpoints(identifier)))
+      for {
+        x <- ctx.submit(input)
+        res <- Iteration.loop(x, f, converged, maxIterations, ctx, checkpoints)
+      } yield res._1
+    }
+  }
+
+  override private[scavenger] def children = Some(List(input))
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    copy(input = cs.head.asInstanceOf[Computation[X]])
+
+  def simplify(
+    ctx: Context,
+    mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+  ): Future[Computation[X]] = {
+    import ctx.executionContext
+    for (newInput <- input.simplifySelfIfNecessary(ctx, mustBeReplaced))
+      yield copy(input = newInput)
+  }
+}
+
+/** A part of an `Iteration` that runs on a single node, 
+  * returns the value after the last step, and whether the iteration
+  * stopped because it converged.
+  */
+private[scavenger] case class IterationSegment[X](
+  start: Computation[X],
+  f: AtomicAlgorithm[X, X],
+  converged: Option[AtomicAlgorithm[(X, X), Boolean]],
+  steps: Int,
+  end: formalccc.Elem
+) extends Computation[(X, Boolean)] {
+  lazy val identifier = formalccc.Couple(end, formalccc.Converged(end))
+  def difficulty = f.difficulty
+  def cachingPolicy = CachingPolicy.Nowhere
+
+  def compute(ctx: Context): Future[(X, Boolean)] = {
+    import ctx.executionContext
+    for {
+      x <- ctx.submit(start)
+      res <- Iteration.loop(x, f, converged, steps, ctx)
+    } yield res
+  }
+
+  override private[scavenger] def children = Some(List(start))
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    copy(start = cs.head.asInstanceOf[Computation[X]])
+
+  def simplify(
+    ctx: Context,
+    mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+  ): Future[Computation[(X, Boolean)]] = {
+    import ctx.executionContext
+    for (newStart <- start.simplifySelfIfNecessary(ctx, mustBeReplaced))
+      yield copy(start = newStart)
+  }
+}
+
+/** Defaults and the loop shared by `Iteration` and its segments */
+object Iteration {
+
+  /** Number of steps between two checkpoints, if not specified otherwise */
+  val DefaultCheckpointInterval = 100
+
+  /** Results of segments are not kept, if not specified otherwise, the
+    * checkpoints are only recorded with `Context.checkpoint`.
+    *
+    * Kept segments are never released, a long iteration would fill
+    * the cache with the results of all its segments.
+    */
+  val DefaultCheckpointPolicy = CachingPolicy.Nowhere
+
+  /** Applies `f` at most `steps` times, stops as soon as `converged`
+    * holds for the values before and after a step (the value after 
+    * this step is returned).
+    *
+    * The algorithms obtain the contexts for their difficulties. 
+    * Synchronous algorithms are applied in a plain loop, all others 
+    * continue the loop in the callbacks of their results, so that 
+    * neither the stack nor a chain of futures grows with the number 
+    * of steps.
+    *
+    * If `checkpoints` specifies an interval and a context, the number of
+    * steps done and the current value are recorded with `checkpoint` 
+    * of the context at this interval, and the loop resumes from the 
+    * `lastCheckpoint` of the context.
+    */
+  private[scavenger] def loop[X](
+    x: X,
+    f: AtomicAlgorithm[X, X],
+    converged: Option[AtomicAlgorithm[(X, X), Boolean]],
+    steps: Int,
+    ctx: Context,
+    checkpoints: Option[(Int, Context)] = None
+  ): Future[(X, Boolean)] = {
+    val fCtx = ctx.forDifficulty(f.difficulty)
+    val pCtx = converged.map{ p => ctx.forDifficulty(p.difficulty) }.getOrElse(ctx)
+    val (start, done) = checkpoints.flatMap{ _._2.lastCheckpoint } match {
+      case Some((i: Int, y)) => (y.asInstanceOf[X], i)
+      case _ => (x, 0)
+    }
+    def recordProgress(i: Int, y: X): Unit = {
+      for ((every, c) <- checkpoints if (i % every == 0 && i < steps)) {
+        c.checkpoint((i, y))
+      }
+    }
+    val syncPredicate = converged match {
+      case None => Some(None)
+      case Some(p: SynchronousAlgorithm[(X, X) @unchecked, Boolean @unchecked]) =>
+        Some(Some(p))
+      case Some(_) => None
+    }
+    (f, syncPredicate) match {
+      case (s: SynchronousAlgorithm[X @unchecked, X @unchecked], Some(sp)) => 
+        Future{
+          var y = start
+          var stopped = false
+          var i = done
+          while (i < steps && !stopped) {
+            val next = s.applySync(y, fCtx)
+            stopped = sp.exists{ p => p.applySync((y, next), pCtx) }
+            y = next
+            i += 1
+            if (!stopped) recordProgress(i, y)
+          }
+          (y, stopped)
+        }(fCtx.executionContext)
+      case _ => {
+        implicit val ec = fCtx.executionContext
+        val result = Promise[(X, Boolean)]
+        def step(y: X, i: Int): Unit = {
+          if (i == steps) result.success((y, false))
+          else Try(f(y, fCtx)) match {
+            case Failure(e) => result.failure(e)
+            case Success(fNext) => fNext.onComplete{
+              case Failure(e) => result.failure(e)
+              case Success(next) => converged match {
+                case None => advance(next, i + 1)
+                case Some(p) => Try(p((y, next), pCtx)) match {
+                  case Failure(e) => result.failure(e)
+                  case Success(fStopped) => fStopped.onComplete{
+                    case Failure(e) => result.failure(e)
+                    case Success(true) => result.success((next, true))
+                    case Success(false) => advance(next, i + 1)
+                  }
+                }
+              }
+            }
+          }
+        }
+        def advance(y: X, i: Int): Unit = Try(recordProgress(i, y)) match {
+          case Failure(e) => result.failure(e)
+          case Success(_) => step(y, i)
+        }
+        step(start, done)
+        result.future
+      }
+    }
+  }
+}
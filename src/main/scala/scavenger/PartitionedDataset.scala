@@ -0,0 +1,101 @@
+package scavenger
+
+import scala.concurrent.Future
+import scavenger.categories.formalccc
+
+/** A dataset that is split into a fixed number of partitions, which
+  * are loaded by the worker nodes and stay there.
+  *
+  * The identifier of the `i`-th of `n` partitions contains the
+  * element `Partition(identifier, i, n)`. The `LoadBalancer` of the
+  * master node uses these elements to send jobs that work on a partition
+  * to a worker that already holds this partition. Therefore, computations
+  * that are derived from the partitions with `map` are evaluated where the
+  * data lives, and only their (hopefully small) results travel through
+  * the network.
+  *
+  * @constructor creates a dataset from already constructed partitions
+  * @param identifier identifier of the whole dataset, e.g. `Atom("data")`
+  * @param partitions computations that produce the individual partitions
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+class PartitionedDataset[X](
+  val identifier: formalccc.Elem,
+  val partitions: IndexedSeq[Computation[X]]
+) extends Serializable {
+
+  /** Number of partitions */
+  def numPartitions: Int = partitions.size
+
+  /** The `i`-th partition */
+  def apply(i: Int): Computation[X] = partitions(i)
+
+  /** Applies an algorithm to each partition separately.
+    *
+    * The resulting partitions are computed on the nodes that hold the
+    * original partitions.
+    */
+  def map[Y](alg: Algorithm[X, Y]): PartitionedDataset[Y] =
+    new PartitionedDataset[Y](
+      alg.identifier(identifier),
+      partitions.map{ p => alg(p) }
+    )
+
+  /** Collects the partitions in their original order.
+    */
+  def collect: Computation[List[X]] = ComputationSequence(partitions.toList)
+
+  override def toString =
+    "PartitionedDataset{%s, %d partitions}".format(identifier, numPartitions)
+}
+
+object PartitionedDataset {
+
+  /** Creates a dataset that consists of `numPartitions` parts that
+    * are loaded by the worker nodes themselves.
+    *
+    * The `loader` obtains the index of the partition, and must
+    * return the corresponding part of the dataset (for example, by reading
+    * the corresponding lines of a file). It is always invoked on a worker,
+    * even if it is `Cheap`, and its results are cached on the worker, so 
+    * that the data itself never has to be sent through the network.
+    */
+  def load[X](name: String, numPartitions: Int)(loader: Algorithm[Int, X]):
+  PartitionedDataset[X] = {
+    val id = formalccc.Atom(name)
+    val partitions = for (i <- 0 until numPartitions) yield {
+      val index = Value(
+        formalccc.Partition(id, i, numPartitions),
+        i,
+        CachingPolicy.Nowhere
+      )
+      LoadedPartition(loader(index)).cacheLocally
+    }
+    new PartitionedDataset[X](id, partitions)
+  }
+
+  /** Loads a partition on a worker node: looks exactly like the 
+    * `load`ing computation, but is `Expensive`, so that the master 
+    * delegates it as a whole, whatever the difficulty of the loader.
+    */
+  private[scavenger] case class LoadedPartition[X](load: Computation[X])
+  extends Computation[X] {
+    def identifier = load.identifier
+    def compute(ctx: Context) = load.compute(ctx)
+    def cachingPolicy = load.cachingPolicy
+    def difficulty = Expensive
+    def simplify(
+      ctx: Context,
+      mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+    ): Future[Computation[X]] = {
+      import ctx.executionContext
+      for (simpler <- load.simplifySelfIfNecessary(ctx, mustBeReplaced))
+        yield LoadedPartition(simpler)
+    }
+    override private[scavenger] def children = Some(List(load))
+    override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+      LoadedPartition(cs.head.asInstanceOf[Computation[X]])
+  }
+}
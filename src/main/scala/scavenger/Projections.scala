@@ -10,25 +10,25 @@ import scavenger.categories.formalccc
   * @since 2.1
   * @author Andrey Tyukin
   */
-case class Fst[X, Y]() extends AtomicAlgorithm[(X, Y), X] {
+case class Fst[X, Y]() extends AtomicAlgorithm[(X, Y), X] 
+with InlineEvaluation[(X, Y), X] {
   def identifier = formalccc.Fst
   def apply(xy: (X, Y), ctx: Context): Future[X] = {
-    import ctx.executionContext
-    val (x, y) = xy
-    Future{ x }
+    Future.successful(applyInline(xy))
   }
+  private[scavenger] def applyInline(xy: (X, Y)): X = xy._1
   def difficulty = Cheap
 }
 
 /** A distinguished type of morphisms that chooses the
   * second component of a product type.
   */
-case class Snd[X, Y]() extends AtomicAlgorithm[(X, Y), Y] {
+case class Snd[X, Y]() extends AtomicAlgorithm[(X, Y), Y] 
+with InlineEvaluation[(X, Y), Y] {
   def identifier = formalccc.Snd
   def apply(xy: (X, Y), ctx: Context): Future[Y] = {
-    import ctx.executionContext
-    val (x, y) = xy
-    Future{ y }
+    Future.successful(applyInline(xy))
   }
+  private[scavenger] def applyInline(xy: (X, Y)): Y = xy._2
   def difficulty = Cheap
 }
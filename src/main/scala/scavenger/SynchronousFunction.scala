@@ -0,0 +1,49 @@
+package scavenger
+
+import scala.concurrent.{Future, Promise}
+import scala.runtime.AbstractFunction2
+import scala.util.Try
+
+/** A function that computes its result synchronously, but can be used
+  * wherever a `(X, Context) => Future[Y]` is expected.
+  *
+  * Plain functions are converted into `SynchronousFunction`s by the
+  * implicit conversions in the `scavenger` package object. The atomic
+  * algorithms built from such functions are `SynchronousAlgorithm`s:
+  * they are evaluated directly on the compute thread, without
+  * scheduling any additional `Future`s.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+abstract class SynchronousFunction[-X, +Y] 
+extends AbstractFunction2[X, Context, Future[Y]] 
+with Serializable {
+
+  /** Computes the result on the calling thread */
+  def applySync(x: X, ctx: Context): Y
+
+  /** Whether `applySync` blocks on I/O, see `AtomicAlgorithm.isBlocking` */
+  def isBlocking: Boolean = false
+
+  def apply(x: X, ctx: Context): Future[Y] = 
+    Promise[Y]().complete(Try(applySync(x, ctx))).future
+}
+
+/** Atomic algorithm that computes its result synchronously.
+  *
+  * Worker nodes evaluate jobs that consist of a synchronous algorithm
+  * applied to an explicit input directly on a compute thread, the
+  * result is sent to the master without any further detours.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+abstract class SynchronousAlgorithm[-X, +Y] extends AtomicAlgorithm[X, Y] {
+
+  /** Computes the result on the calling thread */
+  def applySync(x: X, ctx: Context): Y
+
+  def apply(x: X, ctx: Context): Future[Y] = 
+    Promise[Y]().complete(Try(applySync(x, ctx))).future
+}
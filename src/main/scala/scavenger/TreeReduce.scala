@@ -0,0 +1,78 @@
+package scavenger
+
+import scala.concurrent.Future
+
+/** Hierarchical reduction of many computations by an associative
+  * binary combiner.
+  *
+  * The computations are combined in a `arity`-ary tree: each group of 
+  * `arity` neighbouring nodes is combined from left to right by
+  * `combiner(ComputationPair(a, b))`, the results of the groups form 
+  * the next level. The whole tree is built once, as a single nested
+  * computation with the combination steps as inner nodes, and it is 
+  * submitted in one piece. Independent subtrees are combined 
+  * concurrently by the node that computes the tree (a worker node,
+  * provided that the `combiner` is `Expensive`), the partial results 
+  * stay there, and only the value at the root is sent back.
+  *
+  * Each combination step is cached locally by the node that computes
+  * it, the `cachingPolicy` of the reduced computations is left as is,
+  * so that leaves that must be cached globally are still computed
+  * as separate jobs.
+  *
+  * The original order of the reduced computations is preserved, so
+  * that the combiner does not have to be commutative.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+case class TreeReduce[X](
+  xs: Seq[Computation[X]],
+  arity: Int,
+  combiner: Algorithm[(X, X), X]
+) extends Computation[X] {
+
+  require(!xs.isEmpty, "TreeReduce: nothing to reduce")
+  require(arity >= 2, "TreeReduce: arity must be at least 2")
+
+  /** The whole tree, with the combination steps as inner nodes */
+  private[scavenger] lazy val tree: Computation[X] = {
+    var level = xs.toList
+    while (level.size > 1) {
+      level = level.grouped(arity).toList.map(combineGroup)
+    }
+    level.head
+  }
+
+  lazy val identifier = tree.identifier
+
+  def difficulty = Parallel
+  def cachingPolicy = CachingPolicy.Nowhere
+
+  def compute(ctx: Context): Future[X] = ctx.submit(tree)
+
+  /** Combines a group of neighbouring nodes from left to right */
+  private def combineGroup(group: List[Computation[X]]): Computation[X] =
+    group match {
+      case List(single) => single
+      case _ => group.reduceLeft[Computation[X]]{
+        (a, b) => combiner(ComputationPair(a, b)).cacheLocally
+      }
+    }
+
+  override private[scavenger] def children = Some(xs.toList)
+  override private[scavenger] def withChildren(cs: List[Computation[Any]]) =
+    TreeReduce(cs.asInstanceOf[List[Computation[X]]], arity, combiner)
+
+  def simplify(
+    ctx: Context,
+    mustBeReplaced: (CachingPolicy, Difficulty) => Boolean
+  ): Future[Computation[X]] = {
+    import ctx.executionContext
+    for {
+      newXs <- Future.traverse(xs.toList){
+        x => x.simplifySelfIfNecessary(ctx, mustBeReplaced)
+      }
+    } yield TreeReduce(newXs, arity, combiner)
+  }
+}
@@ -2,6 +2,7 @@ package scavenger
 
 import scala.concurrent.Future
 import scala.concurrent.ExecutionContext
+import scala.util.Success
 import scavenger.categories.formalccc
 
 /** Explicit value of type `X`
@@ -15,5 +16,7 @@ case class Value[X](
   value: X,
   cachingPolicy: CachingPolicy
 ) extends ExplicitComputation[X] {
-  def getExplicitValue(implicit execCtx: ExecutionContext) = Future{ value }
+  def getExplicitValue(implicit execCtx: ExecutionContext) = 
+    Future.successful(value)
+  override private[scavenger] def inlineResult = Some(Success(value))
 }
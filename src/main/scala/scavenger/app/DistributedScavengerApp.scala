@@ -4,6 +4,7 @@ import akka.actor._
 import akka.actor.ActorSystem
 import akka.actor.ActorPath
 import com.typesafe.config.Config
+import scala.concurrent.{Future, Promise}
 import scavenger.Context
 import scavenger.backend._
 import scavenger.backend.master.Master
@@ -28,7 +29,7 @@ with ScavengerNode {
   private[app] def initializeActors(
     system: ActorSystem, 
     generalConfig: Config
-  ): Unit = {
+  ): Future[Unit] = {
 
     val seedPath = extractSeedPath(generalConfig)
     val master = system.actorOf(Master.props(seedPath), "master")
@@ -37,6 +38,11 @@ with ScavengerNode {
       master,
       scala.concurrent.ExecutionContext.Implicits.global
     ))
+
+    val ready = Promise[Unit]
+    val minWorkers = generalConfig.getInt("master.min-ready-workers")
+    master ! Master.AwaitReadiness(minWorkers, ready)
+    ready.future
   }
 
   def scavengerContext = context.getOrElse {
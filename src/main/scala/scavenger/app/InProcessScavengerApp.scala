@@ -0,0 +1,44 @@
+package scavenger.app
+
+import scala.concurrent.Future
+import scavenger.Context
+import scavenger.util.InProcessContext
+
+/** Runs the Scavenger service inside the JVM of the application,
+  * without any actors.
+  *
+  * This is a drop-in replacement for `LocalScavengerApp`: the jobs are
+  * cached and scheduled according to their `CachingPolicy` and
+  * `Difficulty` by an `InProcessContext`, but no `ActorSystem` is
+  * started, no network port is opened, and nothing is serialized.
+  *
+  * @constructor creates an application that uses the specified number of threads
+  * @param parallelism number of threads used for the computations
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+abstract class InProcessScavengerApp(val parallelism: Int)
+extends ScavengerApp {
+
+  def this() = this(Runtime.getRuntime.availableProcessors)
+
+  private var context: Option[InProcessContext] = None
+
+  def scavengerInit(): Future[Unit] = {
+    context = Some(new InProcessContext(parallelism))
+    Future.successful(())
+  }
+
+  def scavengerShutdown(): Unit = {
+    for (c <- context) c.shutdown()
+  }
+
+  def scavengerContext: Context = context.getOrElse {
+    throw new IllegalStateException(
+      "Attempted to use `scavengerContext` on a not " +
+      "initialized scavenger node. Please call `scavengerInit()` at the " +
+      "start of the application."
+    )
+  }
+}
@@ -3,7 +3,8 @@ package scavenger.app
 import akka.actor._
 import akka.actor.ActorSystem
 import akka.actor.ActorPath
-import com.typesafe.config.Config
+import com.typesafe.config.{Config, ConfigFactory}
+import scala.concurrent.{Future, Promise}
 import scavenger.Context
 import scavenger.backend.ReactiveContext
 import scavenger.backend.seed.Seed
@@ -18,28 +19,52 @@ import scavenger.backend.worker.Worker
   * behavior of the algorithm on a local machine before
   * submitting the job to the cluster.
   *
+  * By default, the service runs in embedded mode: the actor system uses
+  * the local actor provider (no network port is opened), there is no
+  * seed node, and the workers are connected to the master directly.
+  * With `embedded = false`, the seed, the master and the workers are
+  * connected through remoting exactly as on a cluster.
+  *
   * @constructor initializes an actor system with all required node types an a single JVM
   * @param numWorkers number of virtual worker nodes created locally
+  * @param embedded whether to skip remoting and the seed handshake
   *
   * @since 2.1
   * @author Andrey Tyukin
   */
-abstract class LocalScavengerApp(val numWorkers: Int) 
+abstract class LocalScavengerApp(val numWorkers: Int, val embedded: Boolean) 
 extends ScavengerApp
 with ScavengerNode {
 
+  def this(numWorkers: Int) = this(numWorkers, true)
+
   private var context: Option[Context] = None
+
   /** Don't use any node-specific config, it doesn't make sense here.
+    * In embedded mode, replaces the remote actor provider by the local one.
     */
-  private[app] def extractNodeConfig(generalConfig: Config): Config = generalConfig
+  private[app] def extractNodeConfig(generalConfig: Config): Config = {
+    if (embedded) {
+      ConfigFactory.parseString(
+        "akka.actor.provider = \"akka.actor.LocalActorRefProvider\""
+      ) withFallback generalConfig
+    } else {
+      generalConfig
+    }
+  }
 
   private[app] def initializeActors(
     system: ActorSystem, 
     generalConfig: Config
-  ): Unit = {
-    val seed = system.actorOf(Seed.props, "seed")
-    val seedPath = seed.path
-    val master = system.actorOf(Master.props(seedPath), "master")
+  ): Future[Unit] = {
+    val seedPath: Option[ActorPath] = 
+      if (embedded) None
+      else Some(system.actorOf(Seed.props, "seed").path)
+
+    val master = seedPath match {
+      case Some(path) => system.actorOf(Master.props(path), "master")
+      case None => system.actorOf(Master.embeddedProps, "master")
+    }
 
     context = Some(new ReactiveContext(
       master,
@@ -47,11 +72,17 @@ with ScavengerNode {
     ))
 
     for (i <- 1 to numWorkers) {
-      system.actorOf(
-        Worker.props(seedPath),
-        scavenger.util.RandomNameGenerator.randomName
-      )
+      val props = seedPath match {
+        case Some(path) => Worker.props(path)
+        case None => Worker.embeddedProps(master)
+      }
+      system.actorOf(props, scavenger.util.RandomNameGenerator.randomName)
     }
+
+    // ready as soon as all local workers have joined the master
+    val ready = Promise[Unit]
+    master ! Master.AwaitReadiness(numWorkers, ready)
+    ready.future
   }
 
   def scavengerContext = context.getOrElse {
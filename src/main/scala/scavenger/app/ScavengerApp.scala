@@ -1,5 +1,6 @@
 package scavenger.app
 
+import scala.concurrent.Future
 import scavenger.Context
 
 /** Interface of a mixin that should be added by users
@@ -13,9 +14,12 @@ import scavenger.Context
   */
 private[app] trait ScavengerApp {
   
-  /** Initializes an actor system and an actor that can handle user requests
+  /** Initializes an actor system and an actor that can handle user requests.
+    *
+    * Returns a future that completes as soon as the service is ready
+    * to process jobs.
     */
-  def scavengerInit(): Unit
+  def scavengerInit(): Future[Unit]
  
   /** Shutds down the underlying actor system
     */
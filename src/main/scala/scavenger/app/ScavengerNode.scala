@@ -3,6 +3,7 @@ package scavenger.app
 import akka.actor.{ActorPath, ActorSystem}
 import java.io.File
 import com.typesafe.config._
+import scala.concurrent.Future
 
 /** Trait for programs with a `main`-function,
   * that loads Scavenger-configuration, creates actor system, starts actors.
@@ -23,13 +24,15 @@ private[app] trait ScavengerNode {
   /** Depending on the type of node, this method has to
     * spawn a master/worker/seed actor in the `system`.
     *
+    * Returns a future that completes when the node is ready.
+    *
     * The configuration is put together from the application configuration file
     * and `reference.conf` in `resources` folder of Scavenger.
     */
   private[app] def initializeActors(
     system: ActorSystem, 
     nodeSpecificConfig: Config
-  ): Unit
+  ): Future[Unit]
 
 
   /** This method composes `ActorPath` of the seed node from various
@@ -79,8 +82,23 @@ private[app] trait ScavengerNode {
     *    keep in mind that values in 'scavenger.conf' have higher precedence
     *    than anything else.
     *
+    * Returns the readiness-future provided by `initializeActors`.
+    */
+  def scavengerInit(): Future[Unit] = ScavengerNode.initialize(this)
+
+  def scavengerShutdown(): Unit = {
+    actorSystem.shutdown()
+  }
+}
+
+private[app] object ScavengerNode {
+
+  /** Implementation of `ScavengerNode.scavengerInit`.
+    *
+    * Java nodes call it directly, because the static methods of the
+    * implementation class of the trait have raw types.
     */
-  def scavengerInit(): Unit = {
+  def initialize(node: ScavengerNode): Future[Unit] = {
     val conf = ConfigFactory.load()
     // TODO: all this seemed to be a bad idea, just remove it completely
     // use system property -Dconfig.file=/path/to/scavenger.conf instead
@@ -109,12 +127,8 @@ private[app] trait ScavengerNode {
        }
     }
       // referenceConf
-    val nodeSpecificConfig = extractNodeConfig(generalConfig)
-    actorSystem = ActorSystem("scavenger", nodeSpecificConfig)
-    initializeActors(actorSystem, nodeSpecificConfig)
-  }
-
-  def scavengerShutdown(): Unit = {
-    actorSystem.shutdown()
+    val nodeSpecificConfig = node.extractNodeConfig(generalConfig)
+    node.actorSystem = ActorSystem("scavenger", nodeSpecificConfig)
+    node.initializeActors(node.actorSystem, nodeSpecificConfig)
   }
 }
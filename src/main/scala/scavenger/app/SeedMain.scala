@@ -2,6 +2,7 @@ package scavenger.app
 
 import akka.actor._
 import com.typesafe.config.Config
+import scala.concurrent.Future
 import scavenger.backend.seed.Seed
 
 /** A `main` that starts a seed node.
@@ -44,9 +45,10 @@ object SeedMain extends ScavengerNode {
   private[app] def initializeActors(
     system: ActorSystem, 
     generalConfig: Config
-  ): Unit = {
+  ): Future[Unit] = {
     system.actorOf(Seed.props, "seed")
+    Future.successful(())
   }
 
-  def main(args: Array[String]): Unit = scavengerInit()
+  def main(args: Array[String]): Unit = { scavengerInit() }
 }
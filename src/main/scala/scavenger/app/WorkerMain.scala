@@ -2,6 +2,7 @@ package scavenger.app
 
 import akka.actor._
 import com.typesafe.config.Config
+import scala.concurrent.Future
 import scavenger.backend.worker.Worker
 
 /** A `main` that starts a worker node.
@@ -21,13 +22,14 @@ object WorkerMain extends ScavengerNode {
   private[app] def initializeActors(
     system: ActorSystem, 
     generalConfig: Config
-  ): Unit = {
+  ): Future[Unit] = {
     val seedPath = extractSeedPath(generalConfig)
     system.actorOf(
       Worker.props(seedPath),
       scavenger.util.RandomNameGenerator.randomName
     )
+    Future.successful(())
   }
 
-  def main(args: Array[String]): Unit = scavengerInit()
+  def main(args: Array[String]): Unit = { scavengerInit() }
 }
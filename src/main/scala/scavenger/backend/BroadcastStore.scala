@@ -0,0 +1,107 @@
+package scavenger.backend
+
+import akka.actor.{Actor, ActorLogging}
+import akka.pattern.pipe
+import scala.collection.mutable.HashMap
+import scala.concurrent.{Future, Promise}
+import scavenger.categories.formalccc
+
+/** Component of `Master` and `Worker` nodes that keeps the values
+  * registered by `Context.broadcast`.
+  *
+  * The `Master` holds every registered value. A `Worker` pulls a value
+  * from the `Master` the first time that a job on this worker asks for it,
+  * and keeps it afterwards, so that each value travels over the wire
+  * at most once per node.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+trait BroadcastStore extends Actor with ActorLogging {
+
+  import BroadcastStore._
+  import context.dispatcher
+
+  private val broadcasts: HashMap[formalccc.Elem, Future[Any]] =
+    HashMap.empty
+
+  // values that have been requested from another node, but have not
+  // arrived yet
+  private val pendingBroadcasts: HashMap[formalccc.Elem, Promise[Any]] =
+    HashMap.empty
+
+  /** Asks another node for a broadcast value that is not known locally.
+    *
+    * The answer must eventually arrive as `BroadcastValue` or
+    * `UnknownBroadcast` message.
+    */
+  protected def fetchBroadcast(id: formalccc.Elem): Unit
+
+  /** Stores a broadcast value on this node */
+  def registerBroadcast(id: formalccc.Elem, value: Any): Unit = {
+    broadcasts(id) = Future.successful(value)
+  }
+
+  /** Drops a broadcast value from this node, jobs that ask for it 
+    * afterwards fail.
+    */
+  def unregisterBroadcast(id: formalccc.Elem): Unit = {
+    broadcasts -= id
+  }
+
+  /** Returns the value of a broadcast, pulls it from another node if
+    * necessary.
+    */
+  def lookupBroadcast(id: formalccc.Elem): Future[Any] = {
+    broadcasts.getOrElseUpdate(id, {
+      val p = Promise[Any]
+      pendingBroadcasts(id) = p
+      fetchBroadcast(id)
+      p.future
+    })
+  }
+
+  /** Behavior that serves broadcast values to other nodes, and
+    * receives broadcast values requested from other nodes.
+    */
+  protected def handleBroadcastTraffic: Receive = ({
+    case FetchBroadcast(id) => {
+      val requester = sender
+      if (broadcasts.isDefinedAt(id)) {
+        broadcasts(id).map{ v => BroadcastValue(id, v) } pipeTo requester
+      } else {
+        log.error("Broadcast {} requested, but it has not been registered", id)
+        requester ! UnknownBroadcast(id)
+      }
+    }
+    case DropBroadcast(id) => {
+      unregisterBroadcast(id)
+    }
+    case BroadcastValue(id, value) => {
+      for (p <- pendingBroadcasts.remove(id)) p.success(value)
+    }
+    case UnknownBroadcast(id) => {
+      // forget the failed future, so that the next request tries again
+      broadcasts -= id
+      for (p <- pendingBroadcasts.remove(id)) {
+        p.failure(new NoSuchElementException("Unknown broadcast: " + id))
+      }
+    }
+  }: Receive)
+}
+
+/** Messages exchanged between nodes that hold broadcast values */
+object BroadcastStore {
+
+  /** Request for a broadcast value, sent from `Worker` to `Master` */
+  private[backend] case class FetchBroadcast(id: formalccc.Elem)
+
+  /** Response to `FetchBroadcast` */
+  private[backend] case class BroadcastValue(id: formalccc.Elem, value: Any)
+
+  /** Negative response to `FetchBroadcast` */
+  private[backend] case class UnknownBroadcast(id: formalccc.Elem)
+
+  /** Tells a `Worker` to drop its copy of an unregistered broadcast */
+  private[backend] case class DropBroadcast(id: formalccc.Elem)
+}
@@ -25,6 +25,12 @@ trait Cache extends Actor with ActorLogging with Scheduler {
     */
   protected def shouldBeCachedHere(p: CachingPolicy): Boolean
 
+  /** Determines whether the result of a job should be cached on this
+    * node, by default according to its caching policy.
+    */
+  protected def cachesHere(job: Computation[Any]): Boolean = 
+    shouldBeCachedHere(job.cachingPolicy)
+
   // The cache stores futures of explicit computations.
   // Explicit computations are either values or data backed up in file.
   // This enables us to send file-handles around, instead of loading 
@@ -41,7 +47,7 @@ trait Cache extends Actor with ActorLogging with Scheduler {
     * scheduler.
     */
   def getComputed(job: Computation[Any]): Future[Any] = {
-    val result = if (shouldBeCachedHere(job.cachingPolicy)) {
+    val result = if (cachesHere(job)) {
       // it makes sense to check the cache
       if (cache.isDefinedAt(job.identifier)) {
         // cache hit. Extract the computation, get its value
@@ -56,7 +62,7 @@ trait Cache extends Actor with ActorLogging with Scheduler {
         // Then unpack the explicit computation and return the
         // explicit value.
         val futValue = schedule(job)
-        cache(job.identifier) = futValue
+        remember(job.identifier, futValue)
         for {
           res <- futValue
           value <- res.getExplicitValue
@@ -74,19 +80,64 @@ trait Cache extends Actor with ActorLogging with Scheduler {
     result
   }
 
+  /** Batch version of `getComputed`.
+    *
+    * Cache hits are answered from the cache, all other jobs are passed 
+    * to the scheduler together (see `Scheduler.scheduleAll`).
+    * If a cacheable job occurs in the batch multiple times, 
+    * it is scheduled only once.
+    */
+  def getComputedAll(jobs: Seq[Computation[Any]]): List[Future[Any]] = {
+    val toSchedule = List.newBuilder[Computation[Any]]
+    val scheduled = List.newBuilder[Promise[ExplicitComputation[Any]]]
+    val explicits = for (job <- jobs.toList) yield {
+      val cacheable = cachesHere(job)
+      if (cacheable && cache.isDefinedAt(job.identifier)) {
+        cache(job.identifier)
+      } else {
+        val p = Promise[ExplicitComputation[Any]]
+        if (cacheable) remember(job.identifier, p.future)
+        toSchedule += job
+        scheduled += p
+        p.future
+      }
+    }
+    for ((p, f) <- scheduled.result zip scheduleAll(toSchedule.result)) {
+      p.completeWith(f)
+    }
+    for (explicit <- explicits) yield explicit.flatMap{ _.getExplicitValue }
+  }
+
+  /** Puts a future result into the cache.
+    *
+    * Failures are not cached, the next request should try again.
+    */
+  private def remember(
+    id: formalccc.Elem, 
+    futValue: Future[ExplicitComputation[Any]]
+  ): Unit = {
+    cache(id) = futValue
+    futValue.onFailure{ 
+      case _ => self ! EvictFailed(id, futValue) 
+    }
+  }
+
   /** Get an equivalent `ExplicitComputation` (either explicit value or
     * a backed up computation)
     */
   def getExplicit(job: Computation[Any]): Future[ExplicitComputation[Any]] = {
-    if (shouldBeCachedHere(job.cachingPolicy)) {
+    if (cachesHere(job)) {
       // it makes sense to check the cache
       if (cache.isDefinedAt(job.identifier)) {
         // cache hit. Extract the computation, just return it 
         // (it's already explicit, no need to simplify it any further)
         cache(job.identifier)
       } else {
-        // nothing we can do, pass it down to the scheduler
-        schedule(job)
+        // pass it down to the scheduler, and remember the result,
+        // so that other jobs that depend on it can reuse it
+        val futValue = schedule(job)
+        remember(job.identifier, futValue)
+        futValue
       }
     } else {
       // it doesn't even make sense to check the cache,
@@ -100,6 +151,11 @@ trait Cache extends Actor with ActorLogging with Scheduler {
     */
   protected def monitorCache: Receive = ({
     case DumpKeys => sender ! dumpKeys
+    // nodes without `CachingAdvisor` do not collect any statistics
+    case master.CachingAdvisor.Report => sender ! Nil
+    case EvictFailed(id, failed) => {
+      if (cache.get(id) == Some(failed)) cache -= id
+    }
   }: Receive)
 }
 
@@ -113,4 +169,12 @@ object Cache {
     * monitoring purposes.
     */
   case object DumpKeys
+
+  /** Message sent to oneself, asks to remove the entry for a 
+    * computation that has failed.
+    */
+  private[backend] case class EvictFailed(
+    id: formalccc.Elem,
+    failed: Future[ExplicitComputation[Any]]
+  )
 }
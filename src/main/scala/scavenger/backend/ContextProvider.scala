@@ -1,7 +1,9 @@
 package scavenger.backend
 
 import akka.actor.Actor
+import scala.concurrent.ExecutionContext
 import scavenger.Context
+import scavenger.util.BlockingExecution
 
 /** Mixin for `Actor`s that provide an `DemilitarizedZone`
   * that allows to create `Context`-decorators.
@@ -11,8 +13,35 @@ import scavenger.Context
   */
 trait ContextProvider extends Actor {
   /** Returns a Scavenger computation context backed by this actor */
-  def provideComputationContext: Context = new ReactiveContext(
-    self,
-    context.dispatcher
-  )
+  def provideComputationContext: Context = {
+    val dispatchers = context.system.dispatchers
+    new ReactiveContext(
+      self,
+      dispatchers.lookup("dispatchers.cheap"),
+      dispatchers.lookup("dispatchers.expensive"),
+      blockingExecutionContext,
+      jobProgress,
+      None
+    )
+  }
+
+  /** Receives the checkpoints of the computations on this node,
+    * nodes without `JobProgress` ignore checkpoints.
+    */
+  protected def jobProgress: Option[JobProgress] = None
+
+  /** Virtual threads, if available and enabled by 
+    * `dispatchers.blocking-mode`, the `dispatchers.blocking` pool otherwise.
+    */
+  private lazy val blockingExecutionContext: ExecutionContext = {
+    val pool = context.system.dispatchers.lookup("dispatchers.blocking")
+    context.system.settings.config.getString("dispatchers.blocking-mode") match {
+      case "auto" => BlockingExecution.virtualThreads.getOrElse(pool)
+      case "pool" => pool
+      case other => throw new IllegalArgumentException(
+        "Unknown dispatchers.blocking-mode: " + other + 
+        " (expected `auto` or `pool`)"
+      )
+    }
+  }
 }
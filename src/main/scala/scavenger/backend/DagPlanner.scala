@@ -0,0 +1,270 @@
+package scavenger.backend
+
+import scala.collection.mutable
+import scavenger._
+import scavenger.categories.formalccc
+
+/** Plans the simplification of a submitted computation in a single walk
+  * over its dependency graph.
+  *
+  * The planner looks for the frontier of a computation: the
+  * subcomputations that must be replaced by explicit values, and that
+  * are not contained in other such subcomputations.
+  * Each of these dependencies is scheduled separately
+  * (and planned the same way, recursively), so that a job is released
+  * exactly when all its dependencies are available,
+  * and independent jobs are released concurrently, in topological order.
+  * As soon as the dependencies are computed, `substitute` rebuilds the
+  * computation with the explicit values inserted.
+  *
+  * Only computations that expose their structure through `children`
+  * can be planned, for all other computations the planner gives up,
+  * and the scheduler falls back to `Computation.simplify`.
+  *
+  * Subcomputations that have been simplified before can be looked up
+  * with `memo`, the planner neither walks into them nor rebuilds them. 
+  * Each visited subcomputation is passed to `remember`, so that
+  * jobs that share a long prefix do not walk the prefix again.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+private[backend] object DagPlanner {
+
+  /** Returns the distinct dependencies of a computation that must be
+    * replaced, or `None` if some part of the dependency graph
+    * does not expose its structure.
+    *
+    * The computation itself is never part of its own frontier.
+    */
+  def frontier(
+    job: Computation[Any],
+    mustBeReplaced: Computation[Any] => Boolean,
+    memo: Computation[Any] => Option[Computation[Any]]
+  ): Option[List[Computation[Any]]] = {
+    val found = mutable.LinkedHashMap.empty[formalccc.Elem, Computation[Any]]
+    // shared subcomputations are visited once; identifiers can not be used
+    // here, because `cacheGlobally` & co. share the identifier with the
+    // computation they wrap
+    val visited = java.util.Collections.newSetFromMap(
+      new java.util.IdentityHashMap[Computation[Any], java.lang.Boolean]
+    )
+    var opaque = false
+    def visit(c: Computation[Any]): Unit = {
+      if (!opaque) {
+        if (mustBeReplaced(c)) {
+          if (!found.contains(c.identifier)) found(c.identifier) = c
+        } else if (visited.add(c) && memo(c).isEmpty) {
+          c.children match {
+            case Some(cs) => cs.foreach(visit)
+            case None => opaque = true
+          }
+        }
+      }
+    }
+    job.children match {
+      case Some(cs) => cs.foreach(visit)
+      case None => opaque = true
+    }
+    if (opaque) None else Some(found.values.toList)
+  }
+
+  /** Returns the identifiers of the subcomputations that occur in more 
+    * than one job of a batch, and that are worth computing only once.
+    *
+    * Explicit values and `Cheap` structural combinators are not worth it, 
+    * subcomputations that must be replaced anyway are not considered.
+    * Subcomputations remembered in `memo` are counted, but the walk
+    * does not enter them.
+    */
+  def sharedSubterms(
+    jobs: Seq[Computation[Any]],
+    mustBeReplaced: Computation[Any] => Boolean,
+    memo: Computation[Any] => Option[Computation[Any]]
+  ): Set[formalccc.Elem] = {
+    val occurrences = mutable.HashMap.empty[formalccc.Elem, Int]
+    for (job <- jobs) {
+      val visited = java.util.Collections.newSetFromMap(
+        new java.util.IdentityHashMap[Computation[Any], java.lang.Boolean]
+      )
+      val seenIds = mutable.HashSet.empty[formalccc.Elem]
+      def visit(c: Computation[Any]): Unit = {
+        val explicit = c.children == Some(Nil)
+        if (((c eq job) || !mustBeReplaced(c)) && visited.add(c)) {
+          if (c.difficulty != Cheap && !explicit && seenIds.add(c.identifier)) {
+            occurrences(c.identifier) = occurrences.getOrElse(c.identifier, 0) + 1
+          }
+          if ((c eq job) || memo(c).isEmpty) {
+            for (cs <- c.children; child <- cs) visit(child)
+          }
+        }
+      }
+      visit(job)
+    }
+    occurrences.collect{ case (id, n) if n > 1 => id }.toSet
+  }
+
+  /** Tells whether a `Cheap` computation is a chain of cheap stages on
+    * top of a single `Expensive` input, which would be computed together 
+    * with it on a worker node, so that the whole computation can be 
+    * delegated as a single job, instead of shipping the intermediate 
+    * result back and forth.
+    *
+    * Cheap stages that combine several `Expensive` inputs are not fused,
+    * because the inputs can be computed in parallel by different workers.
+    * Subcomputations that must be replaced are computed separately anyway.
+    * If some part of the dependency graph does not expose its structure,
+    * the computation is not fused.
+    */
+  def fusible(
+    job: Computation[Any],
+    mustBeReplaced: Computation[Any] => Boolean
+  ): Boolean = {
+    val visited = java.util.Collections.newSetFromMap(
+      new java.util.IdentityHashMap[Computation[Any], java.lang.Boolean]
+    )
+    val expensive = mutable.HashSet.empty[formalccc.Elem]
+    var opaque = false
+    def visit(c: Computation[Any]): Unit = {
+      // a second `Expensive` input is enough to give up
+      if (
+        !opaque && expensive.size <= 1 && 
+        !mustBeReplaced(c) && visited.add(c)
+      ) {
+        c.difficulty match {
+          case Expensive => expensive += c.identifier
+          case Cheap => c.children match {
+            case Some(cs) => cs.foreach(visit)
+            case None => opaque = true
+          }
+          case Parallel => opaque = true
+        }
+      }
+    }
+    job.difficulty == Cheap && (job.children match {
+      case Some(cs) => { cs.foreach(visit); expensive.size == 1 && !opaque }
+      case None => false
+    })
+  }
+
+  /** Returns the distinct subcomputations (including the computation
+    * itself) that are cached locally by the worker that computes them.
+    *
+    * The walk does not enter explicit values, and stops at the parts
+    * of the dependency graph that do not expose their structure.
+    */
+  def locallyCached(job: Computation[Any]): List[Computation[Any]] = {
+    val found = mutable.LinkedHashMap.empty[formalccc.Elem, Computation[Any]]
+    val visited = java.util.Collections.newSetFromMap(
+      new java.util.IdentityHashMap[Computation[Any], java.lang.Boolean]
+    )
+    def visit(c: Computation[Any]): Unit = {
+      if (c.children != Some(Nil) && visited.add(c)) {
+        if (c.cachingPolicy.cacheLocally && !found.contains(c.identifier)) {
+          found(c.identifier) = c
+        }
+        for (cs <- c.children; child <- cs) visit(child)
+      }
+    }
+    visit(job)
+    found.values.toList
+  }
+
+  /** Freezes the answers of a memo: every subcomputation is looked up
+    * in `memo` at most once, later lookups return the same answer,
+    * even if the entry has been dropped from `memo` in the meantime.
+    *
+    * `frontier` and `substitute` must see the same memo, otherwise 
+    * `substitute` walks into subcomputations whose dependencies have
+    * not been collected by `frontier`.
+    */
+  def snapshot(
+    memo: Computation[Any] => Option[Computation[Any]]
+  ): Computation[Any] => Option[Computation[Any]] = {
+    val answers = new java.util.IdentityHashMap[
+      Computation[Any], 
+      Option[Computation[Any]]
+    ]
+    (c: Computation[Any]) => {
+      val known = answers.get(c)
+      if (known != null) {
+        known
+      } else {
+        val answer = memo(c)
+        answers.put(c, answer)
+        answer
+      }
+    }
+  }
+
+  /** Rebuilds a computation, replacing the dependencies found by
+    * `frontier` by equivalent explicit computations.
+    *
+    * The `memo` must give the same answers as during the 
+    * `frontier`-walk (see `snapshot`).
+    *
+    * Subcomputations that do not contain any dependencies are 
+    * returned (and remembered) unchanged.
+    * Subcomputations that contain `transient` dependencies (whose 
+    * results are retained only while the current jobs need them) 
+    * are not remembered.
+    * Shared subcomputations are rebuilt only once, all their 
+    * occurrences are replaced by the same rebuilt computation.
+    */
+  def substitute[X](
+    job: Computation[X],
+    mustBeReplaced: Computation[Any] => Boolean,
+    explicit: Map[formalccc.Elem, ExplicitComputation[Any]],
+    memo: Computation[Any] => Option[Computation[Any]],
+    remember: (Computation[Any], Computation[Any]) => Unit,
+    transient: Computation[Any] => Boolean = _ => false
+  ): Computation[X] = {
+    // rebuilt subcomputations that contain transient dependencies
+    val containsTransient = java.util.Collections.newSetFromMap(
+      new java.util.IdentityHashMap[Computation[Any], java.lang.Boolean]
+    )
+    // shared subcomputations are rebuilt once, as in `frontier`, 
+    // identifiers can not be used here
+    val rebuiltShared = 
+      new java.util.IdentityHashMap[Computation[Any], Computation[Any]]
+    def rebuildChildren[Y](c: Computation[Y]): Computation[Y] = {
+      c.children match {
+        case Some(Nil) | None => c
+        case Some(cs) => {
+          val newCs = cs.map(rebuild)
+          if ((cs, newCs).zipped.forall{ _ eq _ }) {
+            // nothing to replace, but it's still worth remembering
+            // that the walk can stop here
+            remember(c, c)
+            c
+          } else {
+            val rebuilt = c.withChildren(newCs)
+            if (newCs.exists(containsTransient.contains)) {
+              containsTransient.add(rebuilt)
+            } else {
+              remember(c, rebuilt)
+            }
+            rebuilt
+          }
+        }
+      }
+    }
+    def rebuild(c: Computation[Any]): Computation[Any] = {
+      if (mustBeReplaced(c)) {
+        val e = explicit(c.identifier)
+        if (transient(c)) containsTransient.add(e)
+        e
+      } else {
+        val known = rebuiltShared.get(c)
+        if (known != null) {
+          known
+        } else {
+          val r = memo(c).getOrElse(rebuildChildren(c))
+          rebuiltShared.put(c, r)
+          r
+        }
+      }
+    }
+    rebuildChildren(job)
+  }
+}
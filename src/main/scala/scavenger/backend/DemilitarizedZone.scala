@@ -3,6 +3,7 @@ package scavenger.backend
 import akka.actor.{Actor, ActorLogging}
 import scala.concurrent.{Future, Promise, ExecutionContext}
 import scavenger._
+import scavenger.categories.formalccc
 
 /** Layer of `Master` and `Worker` nodes that prevents empty `Promise`s from
   * a `ReactiveContext` from spreading across the rest of the actor system.
@@ -19,21 +20,30 @@ import scavenger._
   * @since 2.1
   * @author Andrey Tyukin
   */
-trait DemilitarizedZone extends Actor with ActorLogging with Cache {
+trait DemilitarizedZone extends Actor with ActorLogging with Cache 
+with BroadcastStore {
  
   import DemilitarizedZone._
   import context.dispatcher 
   
   def handleExternalRequests: Receive = ({
     case Compute(job, result) => {
-      getComputed(job).onSuccess{
-        case r: Any => result.success(r)
-      }
+      result.completeWith(getComputed(job))
+    }
+    case ComputeAll(jobs, results) => {
+      for ((r, f) <- results zip getComputedAll(jobs)) r.completeWith(f)
     }
     case GetExplicitComputation(job, result) => {
-      getExplicit(job).onSuccess{
-        case r: ExplicitComputation[Any] => result.success(r)
-      }
+      result.completeWith(getExplicit(job))
+    }
+    case RegisterBroadcast(id, value) => {
+      registerBroadcast(id, value)
+    }
+    case ResolveBroadcast(id, result) => {
+      result.completeWith(lookupBroadcast(id))
+    }
+    case UnregisterBroadcast(id) => {
+      unregisterBroadcast(id)
     }
   }: Receive)
 }
@@ -44,7 +54,7 @@ trait DemilitarizedZone extends Actor with ActorLogging with Cache {
  */
 object DemilitarizedZone {
 
-  /** First (1/2) type of messages accepted by an `DemilitarizedZone`.
+  /** First (1/6) type of messages accepted by an `DemilitarizedZone`.
     * Requests the evaluation of `job`. The result should be written into
     * the `result`-`Promise`.
     */
@@ -53,7 +63,16 @@ object DemilitarizedZone {
     result: Promise[Any]
   )
 
-  /** Second (2/2) type of messages accepted by an `DemilitarizedZone`.
+  /** Second (2/6) type of messages accepted by an `DemilitarizedZone`.
+    * Requests the evaluation of a whole batch of jobs. The result of 
+    * the `i`-th job should be written into the `i`-th `Promise`.
+    */
+  private[backend] case class ComputeAll(
+    jobs: List[Computation[Any]],
+    results: List[Promise[Any]]
+  )
+
+  /** Third (3/6) type of messages accepted by an `DemilitarizedZone`.
     * Similar to `Compute`, but does not need the final value, accepts a
     * slightly more general `ExplicitComputation` instead.
     */
@@ -61,4 +80,26 @@ object DemilitarizedZone {
     job: Computation[Any], 
     result: Promise[ExplicitComputation[Any]]
   )
+
+  /** Fourth (4/6) type of messages accepted by an `DemilitarizedZone`.
+    * Registers a read-only value that can be shared by many jobs.
+    */
+  private[backend] case class RegisterBroadcast(
+    id: formalccc.Elem,
+    value: Any
+  )
+
+  /** Fifth (5/6) type of messages accepted by an `DemilitarizedZone`.
+    * Requests the value of a registered broadcast. The value should be 
+    * written into the `result`-`Promise`.
+    */
+  private[backend] case class ResolveBroadcast(
+    id: formalccc.Elem,
+    result: Promise[Any]
+  )
+
+  /** Sixth (6/6) type of messages accepted by an `DemilitarizedZone`.
+    * Drops a registered broadcast value.
+    */
+  private[backend] case class UnregisterBroadcast(id: formalccc.Elem)
 }
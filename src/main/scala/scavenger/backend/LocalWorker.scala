@@ -2,6 +2,8 @@ package scavenger.backend
 
 import akka.actor.{Actor, Props}
 import akka.pattern.pipe
+import scala.concurrent.Future
+import scala.util.control.NonFatal
 import scavenger.{Context, Computation}
 import scavenger.backend._
 import scavenger.categories.formalccc
@@ -13,6 +15,9 @@ import scavenger.categories.formalccc
   * the node-manager actor responsive and add an additional layer 
   * where the error-propagation can be stopped.
   *
+  * The local workers are pooled and reused for many jobs, the results
+  * are sent to the sender of the job.
+  *
   * @since 2.1
   * @author Andrey Tyukin
   */
@@ -23,9 +28,17 @@ class LocalWorker(val ctx: Context) extends Actor {
   
   def receive = ({
     case LocalJob(label, r) => {
-      r.compute(ctx).map{
+      val started = 
+        try {
+          r.compute(ctx)
+        } catch {
+          case NonFatal(e) => Future.failed(e)
+        }
+      started.map{
         x => LocalResult(label, x)
-      } pipeTo context.parent
+      }.recover{
+        case e: Throwable => LocalFailure(label, e)
+      } pipeTo sender
     }
   }: Receive)
 }
@@ -34,4 +47,5 @@ object LocalWorker {
   def props(ctx: Context): Props = Props(classOf[LocalWorker], ctx)
   private[backend] case class LocalJob(label: InternalLabel, r: Computation[Any])
   private[backend] case class LocalResult(label: InternalLabel, x: Any)
+  private[backend] case class LocalFailure(label: InternalLabel, e: Throwable)
 }
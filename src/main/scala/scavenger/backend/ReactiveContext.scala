@@ -7,6 +7,7 @@ import scala.collection.mutable.HashMap
 import scala.concurrent._
 import scala.concurrent.duration._
 import scala.language.postfixOps
+import scala.util.Try
 import scavenger._
 import scavenger.categories.formalccc
 import scavenger.backend.Cache.DumpKeys
@@ -31,24 +32,83 @@ import scavenger.backend.Cache.DumpKeys
   * being executed on a node, or by a user who submits jobs
   * to the `Master` node.
   *
+  * On compute nodes, `Expensive` computations and blocking I/O get 
+  * separate execution contexts, so that they don't starve the cheap
+  * computations (see `dispatchers` in `reference.conf`).
+  *
   * @since 2.1
   * @author Andrey Tyukin
   */
 class ReactiveContext(
   private val actorRef: ActorRef,
-  implicit val executionContext: ExecutionContext
+  implicit val executionContext: ExecutionContext,
+  expensiveExecutionContext: ExecutionContext,
+  override val blockingExecutionContext: ExecutionContext,
+  progress: Option[JobProgress],
+  checkpointId: Option[formalccc.Elem]
 ) extends Context {
 
-  def submit[X](job: Computation[X]): Future[X] = {
-    // That's kind of like Hawking's "grey holes":
-    // Promises are thrown into the "black hole", Futures escape...
-    val p = Promise[Any]
-    actorRef ! DemilitarizedZone.Compute(job, p)
-    p.future.map{ 
-      a => a.asInstanceOf[X] 
+  def this(
+    actorRef: ActorRef, 
+    executionContext: ExecutionContext,
+    expensiveExecutionContext: ExecutionContext,
+    blockingExecutionContext: ExecutionContext
+  ) = this(
+    actorRef, 
+    executionContext, 
+    expensiveExecutionContext, 
+    blockingExecutionContext, 
+    None, 
+    None
+  )
+
+  def this(actorRef: ActorRef, executionContext: ExecutionContext) = 
+    this(actorRef, executionContext, executionContext, executionContext)
+
+  override def executionContextFor(difficulty: Difficulty) = difficulty match {
+    case Expensive => expensiveExecutionContext
+    case _ => executionContext
+  }
+
+  def submit[X](job: Computation[X]): Future[X] = inlined(job) match {
+    case Some(result) => Promise[X]().complete(result).future
+    case None => {
+      // That's kind of like Hawking's "grey holes":
+      // Promises are thrown into the "black hole", Futures escape...
+      val p = Promise[Any]
+      actorRef ! DemilitarizedZone.Compute(job, p)
+      p.future.map{ 
+        a => a.asInstanceOf[X] 
+      }
     }
   }
 
+  /** Sends all jobs that can not be inlined in a single message.
+    */
+  override def submitEach[X](jobs: Seq[Computation[X]]): List[Future[X]] = {
+    val results = for (job <- jobs.toList) yield inlined(job) match {
+      case Some(result) => Left(result)
+      case None => Right(Promise[Any])
+    }
+    val sent = (jobs.toList zip results).collect{ case (j, Right(p)) => (j, p) }
+    if (sent.nonEmpty) {
+      actorRef ! DemilitarizedZone.ComputeAll(sent.map{ _._1 }, sent.map{ _._2 })
+    }
+    results.map{
+      case Left(result) => Promise[X]().complete(result).future
+      // no `map`, there is no reason to schedule a callback for each job
+      case Right(p) => p.future.asInstanceOf[Future[X]]
+    }
+  }
+
+  /** Structural combinators of explicit values are not cached anywhere,
+    * there is no need to bother the actor with them.
+    */
+  private def inlined[X](job: Computation[X]): Option[Try[X]] = {
+    if (job.cachingPolicy == CachingPolicy.Nowhere) job.inlineResult
+    else None
+  }
+
   def asExplicitComputation[X](job: Computation[X]): 
     Future[ExplicitComputation[X]] = {
     val p = Promise[ExplicitComputation[Any]]
@@ -58,6 +118,56 @@ class ReactiveContext(
     }
   }
 
+  def broadcast[X](id: String, value: X): Broadcast[X] = {
+    val b = new Broadcast[X](formalccc.Atom(id))
+    actorRef ! DemilitarizedZone.RegisterBroadcast(b.identifier, value)
+    b
+  }
+
+  override def unbroadcast(b: Broadcast[_]): Unit = {
+    actorRef ! DemilitarizedZone.UnregisterBroadcast(b.identifier)
+  }
+
+  private[scavenger] def resolveBroadcast[X](b: Broadcast[X]): Future[X] = {
+    val p = Promise[Any]
+    actorRef ! DemilitarizedZone.ResolveBroadcast(b.identifier, p)
+    p.future.map{
+      a => a.asInstanceOf[X]
+    }
+  }
+
+  /** Checkpoints are passed to the `JobProgress` of the node, 
+    * only computations with an identifier can record checkpoints.
+    */
+  override def checkpoint(state: Any): Unit = {
+    for (p <- progress; id <- checkpointId) p.checkpoint(id, state)
+  }
+
+  override def lastCheckpoint: Option[Any] = {
+    for (p <- progress; id <- checkpointId; state <- p.lastCheckpoint(id))
+      yield state
+  }
+
+  override private[scavenger] def forCheckpoints(id: formalccc.Elem): Context = {
+    if (progress.isEmpty) this
+    else new ReactiveContext(
+      actorRef, 
+      executionContext, 
+      expensiveExecutionContext, 
+      blockingExecutionContext, 
+      progress, 
+      Some(id)
+    )
+  }
+
+  /** Asks the underlying actor for the statistics of its
+    * `CachingAdvisor`, only the master collects them.
+    */
+  override def cachingReport: Future[List[CachingCandidate]] = {
+    implicit val to = Timeout(60 seconds)
+    (actorRef ? master.CachingAdvisor.Report).mapTo[List[CachingCandidate]]
+  }
+
   /** Asks the underlying actor to dump content of it's cache.
     *
     * Intended to be used for testing purposes.
@@ -70,3 +180,20 @@ class ReactiveContext(
     )
   }
 }
+
+/** Records the checkpoints of the job that is currently computed 
+  * on a node (see `Context.checkpoint`).
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+private[backend] trait JobProgress {
+
+  /** Records the state of the computation with the specified identifier,
+    * throws `JobPreempted` if the job should stop.
+    */
+  def checkpoint(id: formalccc.Elem, state: Any): Unit
+
+  /** The last recorded state of the computation */
+  def lastCheckpoint(id: formalccc.Elem): Option[Any]
+}
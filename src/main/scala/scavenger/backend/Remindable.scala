@@ -1,6 +1,7 @@
 package scavenger.backend
 
 import akka.actor.Actor
+import java.util.concurrent.TimeUnit
 import scala.concurrent.duration._
 import scala.concurrent.ExecutionContext
 import scala.language.postfixOps
@@ -26,11 +27,17 @@ trait Remindable extends Actor {
 
   private var lastReminder: Long = 0L
   
-  /** Checks whether a reminder is relevant, or whether it's a redundant one */
+  /** Checks whether a reminder is relevant, or whether it's a redundant one.
+    *
+    * Reminders with non-positive duration (see `remindMyselfNow`) are
+    * always relevant.
+    */
   def isRelevant(reminder: Reminder): Boolean = {
     
     val now = System.currentTimeMillis
-    val result = (now - lastReminder) > reminder.durationMillis
+    val result = 
+      reminder.durationMillis <= 0 ||
+      (now - lastReminder) > reminder.durationMillis
     lastReminder = now
     result
   }
@@ -43,9 +50,38 @@ trait Remindable extends Actor {
   def remindMyself(sec: Int, reason: String)(implicit exec: ExecutionContext): 
     Unit = {
     
-    context.system.scheduler.scheduleOnce(sec seconds) {
-      self ! new Reminder(sec * 1000L, reason)
+    remindMyselfAfter(sec * 1000L, reason)
+  }
+
+  /** Same as `remindMyself`, but with the delay specified in milliseconds.
+    */
+  def remindMyselfAfter(millis: Long, reason: String)
+    (implicit exec: ExecutionContext): Unit = {
+    context.system.scheduler.scheduleOnce(millis milliseconds) {
+      self ! new Reminder(millis, reason)
     }
   }
+
+  /** Sends a reminder to itself without any delay.
+    */
+  def remindMyselfNow(reason: String): Unit = {
+    self ! new Reminder(0L, reason)
+  }
+
+  /** Delay before the `attempt`-th retry of a handshake (counting from 0).
+    *
+    * The delay starts at `handshake.min-retry-interval` and doubles with
+    * each attempt, until it reaches `handshake.max-retry-interval`.
+    */
+  def retryDelayMillis(attempt: Int): Long = {
+    val config = context.system.settings.config
+    val min = config.getDuration(
+      "handshake.min-retry-interval", TimeUnit.MILLISECONDS
+    )
+    val max = config.getDuration(
+      "handshake.max-retry-interval", TimeUnit.MILLISECONDS
+    )
+    math.min(max, min << math.min(attempt, 30))
+  }
 }
 
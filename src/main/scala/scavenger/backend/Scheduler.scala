@@ -38,48 +38,289 @@ with ContextProvider {
     difficulty: Difficulty
   ): Boolean
 
+  /** Whether `Cheap` computations with `Expensive` subcomputations are
+    * delegated as a whole, instead of running here (see `DagPlanner.fusible`).
+    */
+  protected def fuseCheapStages: Boolean = false
+
+  /** Returns a predicate that tells whether a subcomputation 
+    * has to be processed separately (see `mustBeSimplified`). 
+    *
+    * The predicate must not change once it has been returned,
+    * because it's used by future callbacks.
+    */
+  protected def replacementPredicate: Computation[Any] => Boolean = 
+    c => mustBeSimplified(c.cachingPolicy, c.difficulty)
+
+  /** Whether the `Expensive` computations of this node are measured
+    * and passed to `observed`.
+    */
+  protected def observesComputations: Boolean = false
+
+  /** Called with every `Expensive` computation that has been computed
+    * on this node (if `observesComputations` is set), not necessarily 
+    * from within the actor.
+    */
+  protected def observed(
+    job: Computation[Any], 
+    nanos: Long, 
+    result: Any
+  ): Unit = {}
+
+  /** Whether a job is computed on this node, or delegated. 
+    */
+  private def scheduledHere(job: Computation[Any]): Boolean = {
+    mustScheduleHere(job.cachingPolicy, job.difficulty) && !(
+      fuseCheapStages && 
+      DagPlanner.fusible(job, replacementPredicate)
+    )
+  }
+
+  /** Obtains an explicit version of a dependency (implemented by `Cache`,
+    * so that dependencies are looked up in the cache first).
+    */
+  def getExplicit(job: Computation[Any]): Future[ExplicitComputation[Any]]
+
+  /** Maximum number of simplified subcomputations that are remembered,
+    * `0` disables the memoization of simplification results.
+    */
+  protected def simplificationCacheSize: Int = 0
+
+  // Simplified subcomputations with at least one explicit dependency, 
+  // keyed by identifier and hints. Least recently used entries are 
+  // dropped. Filled by future callbacks, hence synchronized.
+  private lazy val simplifiedPrefixes = java.util.Collections.synchronizedMap(
+    new java.util.LinkedHashMap[SimplificationKey, Computation[Any]](
+      16, 0.75f, true
+    ) {
+      override def removeEldestEntry(
+        eldest: java.util.Map.Entry[SimplificationKey, Computation[Any]]
+      ): Boolean = size > simplificationCacheSize
+    }
+  )
+
+  private def keyOf(c: Computation[Any]): SimplificationKey = 
+    (c.identifier, c.cachingPolicy, c.difficulty)
+
+  private def lookupSimplified(c: Computation[Any]): Option[Computation[Any]] = 
+    if (simplificationCacheSize <= 0) None
+    else Option(simplifiedPrefixes.get(keyOf(c)))
+
+  private def rememberSimplified(
+    original: Computation[Any], 
+    simplified: Computation[Any]
+  ): Unit = {
+    if (simplificationCacheSize > 0) {
+      simplifiedPrefixes.put(keyOf(original), simplified)
+    }
+  }
+
+  /** Drops all remembered simplifications, e.g. because more 
+    * subcomputations must be replaced from now on.
+    */
+  protected def forgetSimplified(): Unit = simplifiedPrefixes.clear()
+
   // This hash-map is semi-automatically generated boilerplate, inside of
-  // this map, we store promises for futures that require multiple passes
-  // through the actor-receive-handlers
+  // this map, we store promises of jobs that wait for their dependencies
   private var internalSchedulerJobId: Long = 0
   private val simplifiedJobs = new HashMap[Long, Promise[Value[Any]]]
 
+  // Results of subcomputations shared by multiple jobs (see `scheduleAll`), 
+  // together with the number of jobs that still wait for them.
+  // Unlike the cache, these results are retained only while needed.
+  private val sharedResults = 
+    new HashMap[formalccc.Elem, (Future[Value[Any]], Int)]
+
   /** Decomposes a potentially complex job and schedules
     * individual parts for computation.
     */
-  def schedule(job: Computation[Any]): Future[Value[Any]] = {
+  def schedule(job: Computation[Any]): Future[Value[Any]] = 
+    scheduleSharing(job, Set.empty)
+
+  /** Schedules a job, subcomputations with the identifiers in `shared` 
+    * are computed separately, and only once.
+    */
+  private def scheduleSharing(
+    job: Computation[Any], 
+    shared: Set[formalccc.Elem]
+  ): Future[Value[Any]] = {
     
-    val result = if (mustScheduleHere(job.cachingPolicy, job.difficulty)) {
+    val result = if (scheduledHere(job)) {
       // no choice, we are forced to schedule it right here,
       // we can not delegate it anyway, so there is no
       // reason to try to simplify it.
-      for(x <- computeHere(job)) 
+      val start = System.nanoTime
+      val computed = computeHere(job)
+      if (observesComputations && job.difficulty == Expensive) {
+        for (x <- computed) observed(job, System.nanoTime - start, x)
+      }
+      for(x <- computed) 
         yield Value(job.identifier, x, job.cachingPolicy)
     } else {
-      // Here is where we need the boilerplate-hash-map
-      val p = Promise[Value[Any]]()
-      val ijid = internalSchedulerJobId
-      internalSchedulerJobId += 1
-      simplifiedJobs(ijid) = p
-      simplify(job).map{ j => UnscheduledSimplifiedJob(ijid, j) } pipeTo self
-      p.future
+      plan(job, shared) match {
+        case Left(simple) => release(List(simple)).head
+        case Right(futSimplified) => awaitDependencies(futSimplified)
+      }
     }
    
     result
   }
 
+  /** Schedules a batch of jobs at once.
+    *
+    * Jobs that must be scheduled here are handled as in `schedule`.
+    * All jobs without dependencies are passed to `computeSimplifiedAll` 
+    * in one piece, the remaining jobs are released one by one as soon as
+    * their dependencies are available.
+    *
+    * Subcomputations that occur in multiple jobs of the batch are 
+    * computed only once, and their results are passed to all jobs
+    * that need them, even if they are not cached 
+    * (common subexpression elimination).
+    */
+  def scheduleAll(jobs: Seq[Computation[Any]]): List[Future[Value[Any]]] = {
+    val delegated = jobs.filterNot{ 
+      j => scheduledHere(j) 
+    }
+    val shared = DagPlanner.sharedSubterms(
+      delegated, 
+      replacementPredicate,
+      lookupSimplified _
+    )
+    val planned = for (job <- jobs.toList) yield {
+      if (scheduledHere(job)) {
+        Left(schedule(job))
+      } else if (shared(job.identifier)) {
+        val result = acquireShared(job, shared)
+        result.onComplete{ _ => self ! ReleaseShared(List(job.identifier)) }
+        Left(result)
+      } else {
+        Right(plan(job, shared))
+      }
+    }
+    val released = release(planned.collect{ case Right(Left(j)) => j }).iterator
+    for (p <- planned) yield p match {
+      case Left(result) => result
+      case Right(Left(_)) => released.next()
+      case Right(Right(futSimplified)) => awaitDependencies(futSimplified)
+    }
+  }
+
   def handleScheduling: Receive = ({
     case UnscheduledSimplifiedJob(ijid, j) => {
-      computeSimplified(j).map{ 
-        r => FinalResultSimplifiedJob(j.identifier, r, ijid) 
-      } pipeTo self
+      for (p <- simplifiedJobs.remove(ijid)) p.completeWith(release(List(j)).head)
     }
-    case FinalResultSimplifiedJob(id, res, ijid) => {
-      simplifiedJobs(ijid).success(Value(id, res, CachingPolicy.Nowhere))
-      simplifiedJobs.remove(ijid)
+    case FailedSimplifiedJob(ijid, cause) => {
+      for (p <- simplifiedJobs.remove(ijid)) p.failure(cause)
+    }
+    case ReleaseShared(ids) => {
+      for (id <- ids; (result, n) <- sharedResults.get(id)) {
+        if (n <= 1) sharedResults -= id
+        else sharedResults(id) = (result, n - 1)
+      }
     }
   } : Receive)
 
+  /** Returns the result of a shared subcomputation, starts the
+    * computation if it is not running yet. 
+    * 
+    * Every call must be matched by a `ReleaseShared` message.
+    */
+  private def acquireShared(
+    c: Computation[Any], 
+    shared: Set[formalccc.Elem]
+  ): Future[Value[Any]] = {
+    sharedResults.get(c.identifier) match {
+      case Some((result, n)) => {
+        sharedResults(c.identifier) = (result, n + 1)
+        result
+      }
+      case None => {
+        val result = scheduleSharing(c, shared - c.identifier)
+        sharedResults(c.identifier) = (result, 1)
+        result
+      }
+    }
+  }
+
+  /** Plans the simplification of a job with a single walk over its 
+    * dependencies (see `DagPlanner`).
+    *
+    * Returns the job immediately, if it does not depend on anything 
+    * that must be replaced (apart from the subcomputations that
+    * have already been simplified before). Otherwise, all its dependencies are scheduled at once,
+    * and the simplified job is returned as soon as they are computed.
+    * Jobs whose structure is unknown are simplified by `simplify`.
+    */
+  private def plan(job: Computation[Any], shared: Set[formalccc.Elem]): 
+    Either[Computation[Any], Future[Computation[Any]]] = {
+    // entries may be dropped while the dependencies are computed
+    val memo = DagPlanner.snapshot(lookupSimplified _)
+    val remember = rememberSimplified _
+    // shared subcomputations that are still running are reused as well
+    val reused = shared ++ sharedResults.keySet
+    val mustBeReplaced = replacementPredicate
+    val replace = (c: Computation[Any]) => 
+      mustBeReplaced(c) || reused(c.identifier)
+    // results of shared subcomputations are released after the last
+    // consumer, the simplified jobs that contain them must not be memoized
+    val transient = (c: Computation[Any]) => 
+      !mustBeReplaced(c) && reused(c.identifier)
+    DagPlanner.frontier(job, replace, memo) match {
+      case Some(Nil) => 
+        Left(DagPlanner.substitute(job, replace, Map(), memo, remember))
+      case Some(deps) => {
+        val explicits = deps.map{ d => 
+          if (mustBeReplaced(d)) getExplicit(d)
+          else acquireShared(d, shared)
+        }
+        val sharedDeps = deps.collect{ 
+          case d if !mustBeReplaced(d) => 
+            d.identifier
+        }
+        val allExplicit = Future.sequence(explicits)
+        if (sharedDeps.nonEmpty) {
+          allExplicit.onComplete{ _ => self ! ReleaseShared(sharedDeps) }
+        }
+        Right(
+          for (es <- allExplicit) yield {
+            val replacements = (deps.map{ _.identifier } zip es).toMap
+            DagPlanner.substitute(
+              job, replace, replacements, memo, remember, transient
+            )
+          }
+        )
+      }
+      case None => Right(simplify(job))
+    }
+  }
+
+  /** Passes the simplified job to `self` as soon as it is available,
+    * because `computeSimplified` may be invoked only by the actor itself.
+    */
+  private def awaitDependencies(futSimplified: Future[Computation[Any]]):
+    Future[Value[Any]] = {
+    // Here is where we need the boilerplate-hash-map
+    val p = Promise[Value[Any]]()
+    val ijid = internalSchedulerJobId
+    internalSchedulerJobId += 1
+    simplifiedJobs(ijid) = p
+    futSimplified.map{ 
+      j => UnscheduledSimplifiedJob(ijid, j) 
+    }.recover{
+      case e: Throwable => FailedSimplifiedJob(ijid, e)
+    } pipeTo self
+    p.future
+  }
+
+  /** Delegates simplified jobs, the promises are completed directly 
+    * by the results, without another round trip through the mailbox.
+    */
+  private def release(js: List[Computation[Any]]): List[Future[Value[Any]]] = {
+    for ((j, r) <- js zip computeSimplifiedAll(js)) 
+      yield r.map{ x => Value(j.identifier, x, CachingPolicy.Nowhere) }
+  }
+
   /** Simplify a computation such that the resulting computation can
     * be handled in one piece (e.g. sent to a single worker node)
     */
@@ -89,6 +330,10 @@ with ContextProvider {
 }
 
 object Scheduler {
+
+  /** Simplified subcomputations are remembered per identifier and hints */
+  private[backend] type SimplificationKey = 
+    (formalccc.Elem, CachingPolicy, Difficulty)
   
   // The following message types are essentially "semi-automatically generated
   // boilerplate";
@@ -97,9 +342,10 @@ object Scheduler {
   // very weird way to paraphrase chaining of futures, but it requires a 
   // separate message type and a separate Receive-handler for each flatMap()
   case class UnscheduledSimplifiedJob(jobId: Long, j: Computation[Any])
-  case class FinalResultSimplifiedJob(
-    id: formalccc.Elem, 
-    finalResult: Any,
-    internalJobId: Long
-  )
-}
\ No newline at end of file
+  case class FailedSimplifiedJob(internalJobId: Long, cause: Throwable)
+
+  /** Tells that some jobs do not need the results of shared 
+    * subcomputations any more.
+    */
+  private[backend] case class ReleaseShared(ids: List[formalccc.Elem])
+}
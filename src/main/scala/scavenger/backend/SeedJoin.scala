@@ -30,7 +30,9 @@ with Remindable {
   /** Behavior of the actor that tries to connect to seed node.
     *
     * Requires an initial `Reminder` to trigger the active attempts
-    * to connect to the seed node.
+    * to connect to the seed node. If the seed cannot be resolved,
+    * the resolution is retried with exponentially growing delays
+    * (see `Remindable.retryDelayMillis`).
     */
   def connectingToSeed(
     seedPath: ActorPath,
@@ -40,38 +42,49 @@ with Remindable {
 
     // wake up and try to connect with the seed node
     case r: Reminder => if(isRelevant(r)) {
-      import context.dispatcher
-      if (seedRef == null) {
-        context.actorSelection(seedPath).resolveOne(1 minutes) map { 
-          (ref: ActorRef) =>
-          SeedResolution(Some(ref))
-        } recover {
-          case e: akka.actor.ActorNotFound => SeedResolution(None)
-        } pipeTo self
-        remindMyself(30, "trying to resolve seed")
-      }
+      resolveSeed(seedPath, 0)
     } else {
       log.info("Received irrelevant reminder: " + r.message)
     }
 
+    case RetrySeedResolution(attempt) => resolveSeed(seedPath, attempt)
+
     // result of resolving seed
-    case SeedResolution(Some(ref)) => {
+    case SeedResolution(Some(ref), _) => {
       seedRef = ref
       log.info("Resolved seed")
       seedRef ! msg
-      remindMyself(1, "Connected to seed, continue with next stage")
       context.become(nextBehavior)
+      remindMyselfNow("Connected to seed, continue with next stage")
     }
     
-    // could not find the seed node, just try again later...
-    case SeedResolution(None) => {
-      remindMyself(60, "retry resolve seed")
+    // could not find the seed node, try again a little later...
+    case SeedResolution(None, attempt) => {
+      val delay = retryDelayMillis(attempt)
+      log.info("Could not resolve seed, retrying in " + delay + " ms")
+      context.system.scheduler.scheduleOnce(delay milliseconds, 
+        self, RetrySeedResolution(attempt + 1))
     }
 
   }: Receive)
 
+  /** Asynchronously resolves the seed, sends a `SeedResolution` to itself
+    */
+  private def resolveSeed(seedPath: ActorPath, attempt: Int): Unit = {
+    if (seedRef == null) {
+      val timeout = retryDelayMillis(attempt) max 1000L
+      context.actorSelection(seedPath).resolveOne(timeout milliseconds) map { 
+        (ref: ActorRef) =>
+        SeedResolution(Some(ref), attempt)
+      } recover {
+        case e: Exception => SeedResolution(None, attempt)
+      } pipeTo self
+    }
+  }
+
   def handleSeedHandshakeRemnants: Receive = ({
     case x : SeedResolution => { log.info("Ignored repeated SeedResolution") }
+    case x : RetrySeedResolution => { /* already connected, ignore */ }
   }: Receive)
 
 }
@@ -79,5 +92,8 @@ with Remindable {
 /** Contains `SeedJoin` specific messages */
 object SeedJoin {
   /** Sent to oneself when the seed is resolved */
-  protected case class SeedResolution(seed: Option[ActorRef])
+  protected case class SeedResolution(seed: Option[ActorRef], attempt: Int)
+
+  /** Sent to oneself when the seed should be resolved again */
+  protected case class RetrySeedResolution(attempt: Int)
 }
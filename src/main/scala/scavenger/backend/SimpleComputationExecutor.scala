@@ -1,9 +1,12 @@
 package scavenger.backend
 
-import akka.actor.{Actor, Props, ActorLogging}
+import akka.actor.{Actor, ActorRef, Props, ActorLogging}
+import akka.actor.{OneForOneStrategy, SupervisorStrategy}
+import akka.routing.RoundRobinPool
 import scala.collection.mutable
 import scala.collection.mutable.HashMap
 import scala.concurrent.{Future, Promise}
+import scala.util.{Try, Success, Failure}
 import scavenger._
 import scavenger.backend._
 import scavenger.backend.LocalWorker._
@@ -41,13 +44,19 @@ with ContextProvider {
   protected val promises: mutable.Map[InternalLabel, Promise[Any]] =
     HashMap.empty[InternalLabel, Promise[Any]]
 
-  // just additional debug information...
-  // Where do we lose stuff?
-  private var allFulfilledPromises: List[InternalLabel] = Nil
-
   /** Helper method for fulfilling promises */
   protected def fulfillPromise(label: InternalLabel, result: Any): Unit = {
-    log.debug("fulfilling promise for id = " + label)
+    completePromise(label, Success(result))
+  }
+
+  /** Helper method for breaking promises of failed computations */
+  protected def failPromise(label: InternalLabel, cause: Throwable): Unit = {
+    log.error("computation {} failed: {}", label, cause)
+    completePromise(label, Failure(cause))
+  }
+
+  private def completePromise(label: InternalLabel, result: Try[Any]): Unit = {
+    log.debug("completing promise for id = " + label)
     if (!promises.contains(label)) {
       println("ERROR: the promise for id = " + label + " does not exist")
       throw new Error("SimpleComputationExecutor.fulfillPromise: nothing to fulfill")
@@ -55,31 +64,51 @@ with ContextProvider {
       println("ERROR: the promise for id = " + label + " is already completed!")
       throw new Error("SimpleComputationExecutor.fulfillPromise seems buggy")
     }
-    allFulfilledPromises ::= label
-    promises(label).success(result)
+    promises(label).complete(result)
     promises -= label
-    log.debug("All promises fulfilled so far: \n " + 
-      allFulfilledPromises.mkString("\n"))
   }
 
   /** Perform a simple computation that can be delegated.
     */
   def computeSimplified[X](r: Computation[X]): Future[X]
 
+  /** Performs a batch of simple computations that can be delegated.
+    *
+    * By default, the computations are handled one by one.
+    */
+  def computeSimplifiedAll[X](rs: Seq[Computation[X]]): List[Future[X]] =
+    rs.toList.map{ r => computeSimplified(r) }
+
+  /** Pool of `LocalWorker`s shared by all jobs computed on this node.
+    *
+    * The size of the pool is set by `local-executors.pool-size`.
+    * A `LocalWorker` that crashes is restarted, the pool itself stays.
+    */
+  private lazy val localWorkers: ActorRef = {
+    val poolSize = 
+      context.system.settings.config.getInt("local-executors.pool-size")
+    val supervision = OneForOneStrategy() {
+      case _: Exception => SupervisorStrategy.Restart
+    }
+    context.actorOf(
+      RoundRobinPool(poolSize, supervisorStrategy = supervision).props(
+        LocalWorker.props(provideComputationContext)
+          .withDispatcher("dispatchers.cheap")
+      ),
+      "local-workers"
+    )
+  }
+
   /** Perform a complex computation that can not be delegated.
     *
-    * Simply spawns an little separate actor on same node, and
-    * delegates the computation.
+    * Delegates the computation to a pool of little separate actors 
+    * on same node.
     */
   def computeHere[X](r: Computation[X]): Future[X] = {
-    val spawned = context.actorOf(
-      LocalWorker.props(provideComputationContext),
-      "LOCAL_" + scavenger.util.RandomNameGenerator.randomName
-    )
     val p = Promise[Any]
     val label = toInternalLabel(r.identifier)
     promises(label) = p
-    spawned ! LocalJob(label, r)
+    localWorkers ! LocalJob(label, r)
     p.future.map{ 
       a => a.asInstanceOf[X] 
     }
@@ -89,5 +118,8 @@ with ContextProvider {
     case LocalResult(label, result) => {
       fulfillPromise(label, result)
     }
+    case LocalFailure(label, cause) => {
+      failPromise(label, cause)
+    }
   }: Receive)
 }
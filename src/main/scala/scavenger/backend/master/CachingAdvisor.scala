@@ -0,0 +1,181 @@
+package scavenger.backend.master
+
+import akka.actor.{Actor, ActorLogging}
+import java.io.{ObjectOutputStream, OutputStream}
+import java.util.concurrent.TimeUnit.MILLISECONDS
+import scala.collection.JavaConverters._
+import scala.util.control.NonFatal
+import scavenger._
+import scavenger.categories.formalccc
+
+/** Collects statistics about the computations that are repeatedly
+  * computed by the workers, and suggests which of them should be cached.
+  *
+  * Workers report every `Expensive` computation that is neither 
+  * cached globally nor backed up, together with the time it took and
+  * the size of its serialized result (see `caching-advisor` in 
+  * `reference.conf`). The statistics are available through 
+  * `Context.cachingReport`.
+  *
+  * In `auto` mode, results that have been computed at least 
+  * `min-computations` times, took at least `min-duration` on average, 
+  * and fit into the remaining `memory-budget` are cached on the master 
+  * from then on, as if they were marked with `cacheGlobally`.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+trait CachingAdvisor extends Actor with ActorLogging with MasterCache {
+
+  import CachingAdvisor._
+
+  private lazy val advisorConfig = 
+    context.system.settings.config.getConfig("caching-advisor")
+  private lazy val autoCaching = advisorConfig.getString("mode") == "auto"
+  private lazy val minComputations = advisorConfig.getInt("min-computations")
+  private lazy val minMillis = 
+    advisorConfig.getDuration("min-duration", MILLISECONDS)
+  private lazy val memoryBudget = advisorConfig.getBytes("memory-budget")
+  private lazy val maxTracked = advisorConfig.getInt("max-tracked")
+
+  private lazy val statistics = new StatisticsTable(maxTracked)
+
+  // replaced as a whole, because the planner reads it from other threads
+  @volatile private var autoCached = Set.empty[formalccc.Elem]
+  private var budgetUsed = 0L
+
+  override protected def cachesHere(job: Computation[Any]): Boolean = 
+    super.cachesHere(job) || autoCached(job.identifier)
+
+  override protected def replacementPredicate: Computation[Any] => Boolean = {
+    val inherited = super.replacementPredicate
+    val cached = autoCached
+    c => inherited(c) || cached(c.identifier)
+  }
+
+  /** Records observations of the workers and answers report requests.
+    */
+  protected def adviseCaching: Receive = ({
+    case Observed(id, nanos, bytes) => {
+      val s = statistics.record(id, nanos, bytes)
+      if (autoCaching) considerAutoCaching(id, s)
+    }
+    case Report => sender ! report
+  }: Receive)
+
+  private def considerAutoCaching(id: formalccc.Elem, s: Statistics): Unit = {
+    if (
+      !autoCached(id) && 
+      s.computations >= minComputations && 
+      s.averageMillis >= minMillis &&
+      s.bytes >= 0 && 
+      budgetUsed + s.bytes <= memoryBudget
+    ) {
+      log.info(
+        "Caching " + id + " automatically, computed " + s.computations + 
+        " times, avg " + s.averageMillis + " ms, " + s.bytes + " bytes"
+      )
+      autoCached += id
+      budgetUsed += s.bytes
+      // remembered simplifications do not know about the new cache entry
+      forgetSimplified()
+    }
+  }
+
+  private def report: List[CachingCandidate] = {
+    val candidates = for {
+      (id, s) <- statistics.toList
+      if s.computations > 1
+    } yield CachingCandidate(
+      id, s.computations, s.averageMillis, s.bytes, autoCached(id)
+    )
+    candidates.sortBy{ c => -c.savedMillis }
+  }
+}
+
+/** Messages and helper methods of the `CachingAdvisor` */
+object CachingAdvisor {
+
+  /** Sent by a worker that has computed an `Expensive` computation 
+    * which is not cached globally. `bytes` is `-1` if the result is 
+    * not serializable.
+    */
+  private[backend] case class Observed(
+    id: formalccc.Elem, 
+    nanos: Long, 
+    bytes: Long
+  )
+
+  /** Asks the master for a list of `CachingCandidate`s, sorted by 
+    * the time that caching would have saved.
+    */
+  private[scavenger] case object Report
+
+  private[master] case class Statistics(
+    computations: Int, 
+    nanos: Long, 
+    bytes: Long
+  ) {
+    def add(moreNanos: Long, newBytes: Long) = 
+      Statistics(computations + 1, nanos + moreNanos, math.max(bytes, newBytes))
+    def averageMillis: Double = nanos / 1e6 / computations
+  }
+
+  /** Statistics about at most `maxTracked` identifiers, the statistics 
+    * of the least recently observed identifier are dropped first.
+    */
+  private[master] class StatisticsTable(maxTracked: Int) {
+    private val table = 
+      new java.util.LinkedHashMap[formalccc.Elem, Statistics](
+        16, 0.75f, true
+      ) {
+        override def removeEldestEntry(
+          eldest: java.util.Map.Entry[formalccc.Elem, Statistics]
+        ): Boolean = size > maxTracked
+      }
+
+    /** Adds an observation, returns the updated statistics */
+    def record(id: formalccc.Elem, nanos: Long, bytes: Long): Statistics = {
+      val s = Option(table.get(id)) match {
+        case Some(old) => old.add(nanos, bytes)
+        case None => Statistics(1, nanos, bytes)
+      }
+      table.put(id, s)
+      s
+    }
+
+    def size: Int = table.size
+
+    def toList: List[(formalccc.Elem, Statistics)] = 
+      table.asScala.toList
+  }
+
+  /** Whether the computations of a node should be reported to the 
+    * master, according to the `caching-advisor.mode`.
+    */
+  private[backend] def enabled(config: com.typesafe.config.Config): Boolean = 
+    config.getString("caching-advisor.mode") != "off"
+
+  /** Discards everything written to it, counting the bytes */
+  private class CountingOutputStream extends OutputStream {
+    var count = 0L
+    def write(b: Int): Unit = count += 1
+    override def write(b: Array[Byte], off: Int, len: Int): Unit = 
+      count += len
+  }
+
+  /** Size of the serialized value in bytes, or `-1` if the value is
+    * not serializable.
+    */
+  private[backend] def serializedSize(value: Any): Long = {
+    val counter = new CountingOutputStream
+    try {
+      val out = new ObjectOutputStream(counter)
+      out.writeObject(value)
+      out.close()
+      counter.count
+    } catch {
+      case NonFatal(e) => -1L
+    }
+  }
+}
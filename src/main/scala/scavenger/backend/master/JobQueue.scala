@@ -0,0 +1,130 @@
+package scavenger.backend.master
+
+import scala.collection.mutable
+import scavenger.backend._
+import scavenger.categories.formalccc
+
+/** Queue of the jobs that wait for a worker, indexed by the partitions
+  * and the worker-local results that the jobs need.
+  *
+  * Jobs are taken in the order in which they have been enqueued, but
+  * the `LoadBalancer` can ask for the first job that satisfies some
+  * condition on its partitions and worker-local results. Such requests
+  * look only at the index entries of the relevant partitions and results,
+  * instead of walking over the whole queue.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+private[master] class JobQueue {
+
+  private case class Entry(
+    job: InternalJob,
+    partitions: Set[formalccc.Partition],
+    localResults: Set[formalccc.Elem]
+  )
+
+  // all entries, in the order of their sequence numbers
+  private val entries = mutable.LinkedHashMap.empty[Long, Entry]
+  private var nextSeq = 0L
+
+  // sequence numbers of the jobs that do not work on any partitions
+  private val unpartitioned = mutable.LinkedHashSet.empty[Long]
+
+  // sequence numbers of the jobs that need a partition or a result,
+  // each set is ordered, because sequence numbers are never reused
+  private val byPartition =
+    mutable.HashMap.empty[formalccc.Partition, mutable.LinkedHashSet[Long]]
+  private val byLocalResult =
+    mutable.HashMap.empty[formalccc.Elem, mutable.LinkedHashSet[Long]]
+
+  def size: Int = entries.size
+  def isEmpty: Boolean = entries.isEmpty
+
+  /** Appends a job that works on the specified partitions and needs
+    * the specified worker-local results.
+    */
+  def enqueue(
+    job: InternalJob,
+    partitions: Set[formalccc.Partition],
+    localResults: Set[formalccc.Elem]
+  ): Unit = {
+    val seq = nextSeq
+    nextSeq += 1
+    entries(seq) = Entry(job, partitions, localResults)
+    if (partitions.isEmpty) unpartitioned += seq
+    for (p <- partitions) {
+      byPartition.getOrElseUpdate(p, mutable.LinkedHashSet.empty) += seq
+    }
+    for (r <- localResults) {
+      byLocalResult.getOrElseUpdate(r, mutable.LinkedHashSet.empty) += seq
+    }
+  }
+
+  /** Removes the first job, the queue must not be empty */
+  def dequeue(): InternalJob = remove(entries.head._1)
+
+  /** Removes the first job that works only on the `heldPartitions`
+    * (and at least one of them), or that needs some of the
+    * `heldResults`.
+    */
+  def dequeueFirstLocal(
+    heldPartitions: collection.Set[formalccc.Partition],
+    heldResults: collection.Set[formalccc.Elem]
+  ): Option[InternalJob] = {
+    val viaPartitions = firstOfIndexed(byPartition, heldPartitions){
+      e => e.partitions.forall(heldPartitions)
+    }
+    val viaResults = firstOfIndexed(byLocalResult, heldResults){ _ => true }
+    (viaPartitions ++ viaResults).reduceOption(_ min _).map(remove)
+  }
+
+  /** Removes the first job whose partitions are all `open` */
+  def dequeueFirstAssignable(
+    open: formalccc.Partition => Boolean
+  ): Option[InternalJob] = {
+    val partitioned = (for {
+      (p, seqs) <- byPartition.iterator
+      if open(p)
+      seq <- seqs.find{ s => entries(s).partitions.forall(open) }
+    } yield seq).reduceOption(_ min _)
+    (unpartitioned.headOption ++ partitioned).reduceOption(_ min _).map(remove)
+  }
+
+  /** Returns the smallest sequence number among the jobs indexed under
+    * the `keys` that satisfy the predicate.
+    *
+    * Walks over the `keys` or over the index, whichever is smaller.
+    */
+  private def firstOfIndexed[K](
+    index: mutable.HashMap[K, mutable.LinkedHashSet[Long]],
+    keys: collection.Set[K]
+  )(
+    p: Entry => Boolean
+  ): Option[Long] = {
+    val sets =
+      if (keys.size <= index.size) keys.iterator.flatMap(index.get)
+      else index.iterator.collect{ case (k, seqs) if keys(k) => seqs }
+    sets.flatMap{ seqs => seqs.find{ s => p(entries(s)) } }
+      .reduceOption(_ min _)
+  }
+
+  private def remove(seq: Long): InternalJob = {
+    val e = entries.remove(seq).get
+    unpartitioned -= seq
+    for (p <- e.partitions) removeIndexed(byPartition, p, seq)
+    for (r <- e.localResults) removeIndexed(byLocalResult, r, seq)
+    e.job
+  }
+
+  private def removeIndexed[K](
+    index: mutable.HashMap[K, mutable.LinkedHashSet[Long]],
+    key: K,
+    seq: Long
+  ): Unit = {
+    for (seqs <- index.get(key)) {
+      seqs -= seq
+      if (seqs.isEmpty) index -= key
+    }
+  }
+}
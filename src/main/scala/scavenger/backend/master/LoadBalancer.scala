@@ -29,13 +29,109 @@ with LastMessageTimeMonitoring {
   /** Stores internal jobs that
     * have not yet been assigned to a worker
     */
-  private val queue = mutable.Queue.empty[InternalJob]
+  private val queue = new JobQueue
 
   /** Assignment of worker-ActorRef's to the currently processed job.
     */
   private val assignedJobs: mutable.Map[ActorRef, Option[InternalJob]] = 
     HashMap.empty[ActorRef, Option[InternalJob]]
 
+  /** Workers that have stopped responding, their jobs have been withdrawn.
+    * They are not considered idle until they contact the master again.
+    */
+  private val unresponsive = mutable.HashSet.empty[ActorRef]
+
+  /** Workers that hold a partition of a `PartitionedDataset` in their
+    * cache.
+    */
+  private val partitionOwners: mutable.Map[formalccc.Partition, Set[ActorRef]] =
+    HashMap.empty[formalccc.Partition, Set[ActorRef]] withDefaultValue Set.empty
+
+  /** Partitions held by each worker */
+  private val partitionsHeld = 
+    HashMap.empty[ActorRef, mutable.Set[formalccc.Partition]]
+
+  /** Number of workers that should hold each partition. 
+    *
+    * Jobs are sent to other workers only if a partition is held by 
+    * fewer workers.
+    */
+  private val partitionReplication: Int = 
+    context.system.settings.config.getInt("master.partition-replication")
+
+  /** Workers that hold results of `cacheLocally`-computations in their
+    * caches, keyed by the identifiers of these results.
+    */
+  private val localResultHolders: mutable.Map[formalccc.Elem, Set[ActorRef]] =
+    HashMap.empty[formalccc.Elem, Set[ActorRef]] withDefaultValue Set.empty
+
+  /** Identifiers of the worker-local results held by each worker */
+  private val localResults = 
+    HashMap.empty[ActorRef, mutable.Set[formalccc.Elem]]
+
+  /** Maximal number of worker-local results whose lineage is kept */
+  private val maxLineage: Int = 
+    context.system.settings.config.getInt("master.max-lineage")
+
+  /** Lineage of the worker-local results: the simplified computations 
+    * that produced them on the workers.
+    *
+    * Kept only while some worker holds the result, the lineage of a
+    * recovered result is registered again by its recovery job.
+    * The lineage contains the inputs of the jobs, therefore only the 
+    * `maxLineage` most recently registered entries are kept; results 
+    * without lineage are not recovered, but recomputed by the jobs 
+    * that need them.
+    */
+  private val lineage = 
+    new java.util.LinkedHashMap[formalccc.Elem, Computation[Any]] {
+      override def removeEldestEntry(
+        eldest: java.util.Map.Entry[formalccc.Elem, Computation[Any]]
+      ): Boolean = size > maxLineage
+    }
+
+  /** If enabled, the worker-local results that are lost together with 
+    * a worker are recomputed from their lineage by the surviving workers,
+    * and jobs are preferably sent to the workers that hold the 
+    * worker-local results they need.
+    */
+  private val recoverLostResults: Boolean = 
+    context.system.settings.config.getBoolean("master.recover-lost-results")
+
+  /** Last checkpoints of the jobs that are currently assigned to workers 
+    * (see `Context.checkpoint`), keyed by the identifiers of the 
+    * computations that recorded them.
+    */
+  private val checkpoints = 
+    HashMap.empty[InternalLabel, Map[formalccc.Elem, Any]]
+
+  /** Times (in nanoseconds) at which the assigned jobs were started */
+  private val startTimes = HashMap.empty[InternalLabel, Long]
+
+  /** Jobs that have been asked to stop at their next checkpoint */
+  private val preempted = mutable.HashSet.empty[InternalLabel]
+
+  /** Jobs that record checkpoints and have been running longer than this 
+    * are preempted when other jobs wait for a worker, `0` disables 
+    * preemption.
+    */
+  private val preemptAfterNanos: Long = 
+    context.system.settings.config.getDuration(
+      "master.preempt-after", 
+      java.util.concurrent.TimeUnit.NANOSECONDS
+    )
+
+  /** Promises that should be completed as soon as the specified
+    * number of workers has joined.
+    */
+  private val readinessRequests = 
+    mutable.ListBuffer.empty[(Int, Promise[Unit])]
+
+  /** Tells whether the master is registered at the seed node,
+    * so that the workers can find it.
+    */
+  protected def acceptsWorkers: Boolean
+
   /** Perform a simple computation that can be delegated.
     */
   def computeSimplified[X](r: Computation[X]): Future[X] = {
@@ -48,16 +144,73 @@ with LastMessageTimeMonitoring {
     result
   }
 
+  /** Enqueues all jobs of a batch before the idle workers are notified,
+    * so that each idle worker gets at most one `JobsAvailable`.
+    */
+  override def computeSimplifiedAll[X](rs: Seq[Computation[X]]): 
+  List[Future[X]] = {
+    val results = for (r <- rs.toList) yield {
+      val p = Promise[Any]
+      val label = toInternalLabel(r.identifier)
+      promises(label) = p
+      addToQueue(InternalJob(label, r))
+      p.future.asInstanceOf[Future[X]]
+    }
+    if (results.nonEmpty) notifyIdleWorkers()
+    results
+  }
+
   /** Appends an internal job id to a job and puts it into the job queue.
     */
   private def enqueueSimple(label: InternalLabel, job: Computation[Any]): Unit = 
   { 
-    val internalJob = InternalJob(label, job)
-    queue.enqueue(internalJob)
-    // notify all workers that there is something to do
-    for (worker <- idleWorkers) worker ! JobsAvailable
+    enqueue(InternalJob(label, job))
+  }
+
+  private def enqueue(internalJob: InternalJob): Unit = {
+    addToQueue(internalJob)
+    notifyIdleWorkers()
   }
 
+  /** Puts a job into the queue, indexed by the partitions and the
+    * worker-local results it needs.
+    */
+  private def addToQueue(j: InternalJob): Unit = {
+    val localResults = 
+      if (recoverLostResults) {
+        DagPlanner.locallyCached(j.job).map{ _.identifier }.toSet
+      } else {
+        Set.empty[formalccc.Elem]
+      }
+    queue.enqueue(j, partitionsOf(j.label.formalId), localResults)
+  }
+
+  /** Notifies idle workers that there is something to do.
+    *
+    * All idle remote workers are notified. Workers that run inside of
+    * the master's JVM are notified only if there are more jobs than
+    * idle remote workers.
+    */
+  private def notifyIdleWorkers(): Unit = {
+    val (local, remote) = idleWorkers.partition(isLocal)
+    for (worker <- remote) worker ! JobsAvailable
+    for (worker <- local.take(queue.size - remote.size)) {
+      worker ! JobsAvailable
+    }
+  }
+
+  /** Checks whether a worker is hosted by the master itself
+    * (see `master.local-worker-slots`)
+    */
+  private def isLocal(worker: ActorRef): Boolean = 
+    worker.path.parent == self.path
+
+  /** Local workers yield to idle remote workers, as long as the remote
+    * workers can take all queued jobs.
+    */
+  private def shouldYield(worker: ActorRef): Boolean = 
+    isLocal(worker) && queue.size <= idleWorkers.count{ w => !isLocal(w) }
+
   /** Assigns a job to worker.
     *
     * Just a way to make things a little safer (e.g. prevents you from
@@ -76,6 +229,22 @@ with LastMessageTimeMonitoring {
     if (!assignedJobs.contains(worker)) {
       assignedJobs(worker) = None
       log.info("Registered worker " + worker.path.name)
+      checkReadiness()
+    }
+  }
+
+  /** Completes all readiness promises that wait for at most as many
+    * workers as currently registered.
+    */
+  protected[master] def checkReadiness(): Unit = {
+    if (acceptsWorkers) {
+      val numWorkers = allWorkers.size
+      val (ready, waiting) = readinessRequests.partition{ 
+        case (minWorkers, _) => minWorkers <= numWorkers 
+      }
+      for ((_, p) <- ready) p.trySuccess(())
+      readinessRequests.clear()
+      readinessRequests ++= waiting
     }
   }
 
@@ -91,16 +260,31 @@ with LastMessageTimeMonitoring {
         "Attempted to assign job to unregistered worker " + 
         worker.path.name
       )
+    } else if (assignedJobs(worker).isEmpty && shouldYield(worker)) {
+      log.info("Leaving jobs to remote workers, nothing to do for " + 
+        worker.path.name)
+      worker ! NoJobsAvailable
     } else if (assignedJobs(worker).isEmpty){
       assert(!queue.isEmpty, "Queue should not be empty, size = " + queue.size)
-      val internalJob = queue.dequeue
-      assert(!(internalJob == null), "Dequeued job should be not null")
-      assignedJobs(worker) = Some(internalJob)
-      sendJobToWorker(internalJob, worker)
-      log.info(
-        "Assigned job " + internalJob.job + 
-        " to " + worker.path.name
-      )
+      dequeueJobFor(worker) match {
+        case Some(internalJob) => {
+          assert(!(internalJob == null), "Dequeued job should be not null")
+          assignedJobs(worker) = Some(internalJob)
+          startTimes(internalJob.label) = System.nanoTime
+          sendJobToWorker(internalJob, worker)
+          log.info(
+            "Assigned job " + internalJob.job + 
+            " to " + worker.path.name
+          )
+        }
+        case None => {
+          log.info(
+            "All queued jobs wait for workers that hold their partitions, " +
+            "nothing to do for " + worker.path.name
+          )
+          worker ! NoJobsAvailable
+        }
+      }
     } else {
       log.info(
         "Worker is already occupied, " +
@@ -110,6 +294,97 @@ with LastMessageTimeMonitoring {
     }
   }
 
+  /** Picks the next job for the worker.
+    *
+    * Jobs that work on partitions held by this worker, or that need
+    * worker-local results held by this worker, are preferred.
+    * Jobs that work on partitions held by other workers are skipped, 
+    * unless the partition is replicated on fewer than 
+    * `partitionReplication` live workers.
+    */
+  private def dequeueJobFor(worker: ActorRef): Option[InternalJob] = {
+    if (partitionOwners.isEmpty && localResultHolders.isEmpty) {
+      // nothing is held anywhere, no reason to search the queue
+      Some(queue.dequeue())
+    } else {
+      queue.dequeueFirstLocal(
+        partitionsHeld.getOrElse(worker, Set.empty[formalccc.Partition]),
+        localResults.getOrElse(worker, Set.empty[formalccc.Elem])
+      ) orElse
+      queue.dequeueFirstAssignable{ p => 
+        val owners = partitionOwners(p)
+        owners.contains(worker) || owners.size < partitionReplication
+      }
+    }
+  }
+
+  /** Remembers that the worker holds all partitions of a completed job */
+  private def registerPartitions(j: InternalJob, worker: ActorRef): Unit = {
+    for (p <- partitionsOf(j.label.formalId)) {
+      partitionOwners(p) = partitionOwners(p) + worker
+      partitionsHeld.getOrElseUpdate(worker, mutable.HashSet.empty) += p
+    }
+  }
+
+  /** Forgets all partitions held by a worker */
+  private def forgetPartitions(worker: ActorRef): Unit = {
+    for (p <- partitionsHeld.remove(worker).toList.flatten) {
+      val owners = partitionOwners(p) - worker
+      if (owners.isEmpty) partitionOwners -= p
+      else partitionOwners(p) = owners
+    }
+  }
+
+  /** Remembers the lineage of the worker-local results computed 
+    * by a completed job, and that the worker holds them.
+    */
+  private def registerLocalResults(j: InternalJob, worker: ActorRef): Unit = {
+    if (recoverLostResults) {
+      val held = localResults.getOrElseUpdate(worker, mutable.HashSet.empty)
+      for (c <- DagPlanner.locallyCached(j.job)) {
+        localResultHolders(c.identifier) = 
+          localResultHolders(c.identifier) + worker
+        held += c.identifier
+        if (!lineage.containsKey(c.identifier)) lineage.put(c.identifier, c)
+      }
+    }
+  }
+
+  /** Forgets the worker-local results held by a lost worker, and 
+    * recomputes the results that are not held by any other worker.
+    *
+    * Only the outermost lost results are recomputed, each by a separate
+    * job, so that independent results are recovered in parallel.
+    * Lost results contained in them are recomputed (and cached) 
+    * on the same worker. Everything else is still available, 
+    * or explicit already.
+    */
+  private def recoverLocalResults(worker: ActorRef): Unit = {
+    val lost = mutable.ListBuffer.empty[Computation[Any]]
+    for (id <- localResults.remove(worker).toList.flatten) {
+      val holders = localResultHolders(id) - worker
+      if (holders.isEmpty) {
+        localResultHolders -= id
+        lost ++= Option(lineage.remove(id))
+      } else {
+        localResultHolders(id) = holders
+      }
+    }
+    val nested = (for {
+      c <- lost
+      d <- DagPlanner.locallyCached(c)
+      if (d.identifier != c.identifier)
+    } yield d.identifier).toSet
+    val outermost = lost.toList.filterNot{ c => nested(c.identifier) }
+    if (!outermost.isEmpty) {
+      log.info(
+        "Recomputing " + outermost.size + " of " + lost.size + 
+        " worker-local results lost with " + worker.path.name
+      )
+      computeSimplifiedAll(outermost)
+    }
+  }
+
   /** Puts a job of a failed worker back into the queue
     */
   private def withdrawJob(worker: ActorRef): Unit = {
@@ -126,20 +401,70 @@ with LastMessageTimeMonitoring {
             " (nothing to withdraw)")
         case Some(oldJob) =>
           log.info("Withdrawing and re-enqueueing job from " + worker)
-          enqueueSimple(oldJob.label, oldJob.job)
+          // the job is resumed from its last checkpoint
+          enqueue(oldJob.copy(checkpoints = finish(oldJob)))
           assignedJobs(worker) = None
       }
     }
   }
   
-  /** Returns collection with all idle workers
+  /** Forgets everything about a job that is no longer assigned to a 
+    * worker, returns its last checkpoints.
+    */
+  private def finish(j: InternalJob): Map[formalccc.Elem, Any] = {
+    startTimes -= j.label
+    preempted -= j.label
+    checkpoints.remove(j.label).getOrElse(j.checkpoints)
+  }
+
+  /** Asks a worker to stop its job at the next checkpoint, if it has
+    * been running for too long while other jobs wait.
+    */
+  private def preemptIfNecessary(j: InternalJob, worker: ActorRef): Unit = {
+    val runningNanos = System.nanoTime - startTimes.getOrElse(j.label, 0L)
+    if (
+      preemptAfterNanos > 0 && 
+      runningNanos >= preemptAfterNanos && 
+      !queue.isEmpty && 
+      idleWorkers.isEmpty && 
+      !preempted(j.label)
+    ) {
+      log.info("Preempting " + j.label + " on " + worker.path.name)
+      preempted += j.label
+      worker ! Preempt(j.label)
+    }
+  }
+
+  /** Collects all references to partitions of datasets in an identifier */
+  private def partitionsOf(id: formalccc.Elem): Set[formalccc.Partition] = {
+    import formalccc._
+    id match {
+      case p: Partition => Set(p)
+      case Couple(x, y) => partitionsOf(x) ++ partitionsOf(y)
+      case Tuple(xs) => xs.map(partitionsOf).foldLeft(Set.empty[Partition]){_ ++ _}
+      case Application(f, x) => partitionsOf(f) ++ partitionsOf(x)
+      case Composition(g, f) => partitionsOf(g) ++ partitionsOf(f)
+      case Pair(f, g) => partitionsOf(f) ++ partitionsOf(g)
+      case Curry(f) => partitionsOf(f)
+      case PartialApplication(f, x) => partitionsOf(f) ++ partitionsOf(x)
+      case Chunk(whole, _, _) => partitionsOf(whole)
+      case Elementwise(f) => partitionsOf(f)
+      case Reduce(op) => partitionsOf(op)
+      case _ => Set.empty
+    }
+  }
+
+  /** Returns collection with all idle workers that respond
     */
   private def idleWorkers = 
-    for ((w, None) <- assignedJobs) yield w
+    for ((w, None) <- assignedJobs if !unresponsive(w)) yield w
     
   /** Returns collection of all workers
     */
   private def allWorkers = assignedJobs.keySet
+
+  /** All workers that have joined the master and have not terminated */
+  protected[master] def registeredWorkers: Iterable[ActorRef] = allWorkers
   
   /** Handles reminders sent after the initialization phase
     */
@@ -148,6 +473,7 @@ with LastMessageTimeMonitoring {
     // assign a job to all idle workers that joined the master
     // in the initialization phase
     case r: Reminder if (isRelevant(r)) =>
+      checkReadiness()
       val ws = idleWorkers
       log.info(
         s"Trying to assign ${queue.size} jobs from initialization phase " +
@@ -159,6 +485,15 @@ with LastMessageTimeMonitoring {
     case r: Reminder => { /* no longer relevant, ignore */ }
   }
   
+  /** Registers requests that wait until enough workers have joined
+    */
+  protected[master] def handleReadinessRequests: Receive = {
+    case Master.AwaitReadiness(minWorkers, ready) => {
+      readinessRequests += ((minWorkers, ready))
+      checkReadiness()
+    }
+  }
+
   /** Behavior for normal operation mode.
     *
     * Trying to assign jobs to workers,
@@ -167,20 +502,64 @@ with LastMessageTimeMonitoring {
   protected[master] def handleWorkerRequests: Receive = {
     case WorkerHere =>
       log.info("Got job request from a worker " + sender.path.name)
+      unresponsive -= sender
       register(sender)
       tryAssignJob(sender)
       
     case Terminated(worker) if (assignedJobs.contains(worker)) => 
         withdrawJob(worker)
+        forgetPartitions(worker)
+        // terminated workers never come back, and must not be notified
+        // about the recovery jobs
+        assignedJobs -= worker
+        unresponsive -= worker
+        recoverLocalResults(worker)
 
     case RemoteNodeNotResponding(worker) if(assignedJobs.contains(worker)) =>
+      unresponsive += worker
       withdrawJob(worker)
+      forgetPartitions(worker)
+      recoverLocalResults(worker)
   }
   
   /** Handles results from workers
     */
   protected[master] def handleWorkerResponses: Receive = {
+    case Checkpointed(label, id, state) => {
+      unresponsive -= sender
+      assignedJobs.get(sender) match {
+        case Some(Some(j)) if (j.label == label) => {
+          checkpoints(label) = 
+            checkpoints.getOrElse(label, j.checkpoints).updated(id, state)
+          preemptIfNecessary(j, sender)
+        }
+        case _ => { /* the job has been withdrawn, ignore */ }
+      }
+    }
+    case InternalFailure(label, cause) => {
+      unresponsive -= sender
+      assignedJobs.get(sender) match {
+        case Some(Some(originalJob)) if (originalJob.label == label) => {
+          val wasPreempted = preempted(label)
+          val lastCheckpoints = finish(originalJob)
+          cause match {
+            case p: JobPreempted if wasPreempted => {
+              // back to the end of the queue, resumed later
+              enqueue(originalJob.copy(checkpoints = lastCheckpoints))
+            }
+            case _ => failPromise(label, cause)
+          }
+          assignedJobs(sender) = None
+          tryAssignJob(sender)
+        }
+        case _ => log.error(
+          "Received failure " + label + " from " + sender.path.name + 
+          " but this job was not assigned to this worker"
+        )
+      }
+    }
     case InternalResult(label, result) => {
+      unresponsive -= sender
       val logMessageIntro = "Received result " + label + " from " + 
         sender.path.name + " "
       assignedJobs(sender) match {
@@ -200,6 +579,9 @@ with LastMessageTimeMonitoring {
               ", fulfilling promise, try assign new job. "
             )
             fulfillPromise(label, result)
+            finish(originalJob)
+            registerPartitions(originalJob, sender)
+            registerLocalResults(originalJob, sender)
             assignedJobs(sender) = None
             tryAssignJob(sender)
           }
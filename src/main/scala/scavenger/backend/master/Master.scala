@@ -2,8 +2,10 @@ package scavenger.backend.master
 
 import akka.actor._
 import scala.collection.mutable.{HashSet, HashMap}
+import scala.concurrent.Promise
 import scavenger._
 import scavenger.backend.{Scheduler => _, _}
+import scavenger.backend.worker.Worker
 import scavenger.categories.formalccc
 
 /** The central `Master` node of the Scavenger backend.
@@ -12,10 +14,18 @@ import scavenger.categories.formalccc
   * and coordinates the `Worker` nodes to obtain a result in an 
   * efficient manner.
   *
+  * If no `seedPath` is given, the master runs in embedded mode: it does
+  * not register at any seed node, and the workers must be given a direct
+  * reference to the master (see `Worker.embeddedProps`).
+  *
+  * The master can host `master.local-worker-slots` workers in its own
+  * JVM. They take jobs from the same queue as the remote workers, but
+  * only if there are no idle remote workers.
+  *
   * @since 2.1
   * @author Andrey Tyukin
   */
-class Master(val seedPath: ActorPath) 
+class Master(val seedPath: Option[ActorPath]) 
 extends Actor 
 with ActorLogging
 with SeedJoin 
@@ -24,6 +34,7 @@ with ContextProvider
 with LoadBalancer
 with MasterScheduler
 with MasterCache
+with CachingAdvisor
 with DemilitarizedZone 
 with UnexpectedMessageHandler {
 
@@ -31,14 +42,33 @@ with UnexpectedMessageHandler {
 
   self ! Reminder(1, "Connect to seed and switch into normal operation mode")
 
-  def receive: Receive = connectingToSeed(
-    seedPath,
-    MasterHere,
-    normalOperationMode
-  ) orElse 
-  handleExternalRequests orElse 
-  handleScheduling orElse
-  handleUnexpectedMessages
+  private val localWorkerSlots = 
+    context.system.settings.config.getInt("master.local-worker-slots")
+
+  for (i <- 1 to localWorkerSlots) {
+    context.actorOf(Worker.embeddedProps(self), "local-worker-" + i)
+  }
+
+  def receive: Receive = seedPath match {
+    case Some(path) => 
+      connectingToSeed(
+        path,
+        MasterHere,
+        normalOperationMode
+      ) orElse 
+      handleExternalRequests orElse 
+      // local workers can start working before the seed is resolved
+      updatingLastMessageTime(handleWorkerRequests) orElse
+      updatingLastMessageTime(handleWorkerResponses) orElse
+      handleScheduling orElse
+      handleLocalResponses orElse
+      handleBroadcastTraffic orElse
+      handleReadinessRequests orElse
+      adviseCaching orElse
+      monitorCache orElse
+      handleUnexpectedMessages
+    case None => normalOperationMode
+  }
 
   private def normalOperationMode: Receive = 
     handleExternalRequests orElse
@@ -46,12 +76,30 @@ with UnexpectedMessageHandler {
     updatingLastMessageTime(handleWorkerResponses) orElse
     handleScheduling orElse
     handleLocalResponses orElse
+    handleBroadcastTraffic orElse
+    handleReadinessRequests orElse
     monitorLastMessageTimes orElse
     handleReminders orElse
     handleSeedHandshakeRemnants orElse
+    adviseCaching orElse
     monitorCache orElse
     handleUnexpectedMessages
 
+  /** Workers can find the master as soon as it is registered at the seed,
+    * embedded workers know the master from the beginning.
+    */
+  protected def acceptsWorkers: Boolean = seedPath.isEmpty || seedRef != null
+
+  /** The master holds all broadcast values, there is nobody else to ask. */
+  protected def fetchBroadcast(id: formalccc.Elem): Unit = {
+    self ! BroadcastStore.UnknownBroadcast(id)
+  }
+
+  /** The copies of the workers are dropped as well */
+  override def unregisterBroadcast(id: formalccc.Elem): Unit = {
+    super.unregisterBroadcast(id)
+    for (w <- registeredWorkers) w ! BroadcastStore.DropBroadcast(id)
+  }
 }
 
 /** Defines `props` used to construct `Master` actors, 
@@ -59,7 +107,14 @@ with UnexpectedMessageHandler {
   */
 object Master {
 
-  def props(seedPath: ActorPath) = Props(classOf[Master], seedPath)
+  def props(seedPath: ActorPath) = 
+    Props(classOf[Master], Some(seedPath)).withDispatcher("dispatchers.control")
+
+  /** Props for a master that runs without seed node in the same actor
+    * system as its workers.
+    */
+  def embeddedProps = 
+    Props(classOf[Master], None).withDispatcher("dispatchers.control")
 
   /** Handshake message sent to the seed node in the
     * connection phase.
@@ -70,4 +125,13 @@ object Master {
     * This kind of communication is initiated by the master.
     */
   private[backend] case class Delegated(job: Computation[Any])
+
+  /** Asks the master to complete the promise as soon as it is
+    * registered at the seed and at least `minWorkers` workers
+    * have joined.
+    */
+  private[scavenger] case class AwaitReadiness(
+    minWorkers: Int, 
+    ready: Promise[Unit]
+  )
 }
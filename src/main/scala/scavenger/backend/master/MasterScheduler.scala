@@ -10,6 +10,12 @@ import scavenger.backend._
   */
 trait MasterScheduler extends Scheduler {
 
+  override protected lazy val simplificationCacheSize: Int = 
+    context.system.settings.config.getInt("master.simplification-cache-size")
+
+  override protected lazy val fuseCheapStages: Boolean = 
+    context.system.settings.config.getBoolean("master.fuse-cheap-stages")
+
   protected def mustBeSimplified(
     policy: CachingPolicy,
     difficulty: Difficulty
@@ -31,7 +31,8 @@ package object backend {
     */
   private[backend] case class InternalJob(
     label: InternalLabel, 
-    job: Computation[Any]
+    job: Computation[Any],
+    checkpoints: Map[formalccc.Elem, Any] = Map.empty
   )
   
   /** Results sent from Workers to Master
@@ -41,6 +42,26 @@ package object backend {
     result: Any
   )
 
+  /** Failures sent from Workers to Master
+    */
+  private[backend] case class InternalFailure(
+    label: InternalLabel,
+    cause: Throwable
+  )
+
+  /** Progress of a job, sent from Workers to Master 
+    * (see `Context.checkpoint`)
+    */
+  private[backend] case class Checkpointed(
+    label: InternalLabel,
+    id: formalccc.Elem,
+    state: Any
+  )
+
+  /** Asks a Worker to stop a job at its next checkpoint
+    */
+  private[backend] case class Preempt(label: InternalLabel)
+
   /** Message that tells the worker that there is currently nothing to do.
     */
   private[backend] case object NoJobsAvailable
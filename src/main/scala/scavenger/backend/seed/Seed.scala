@@ -34,8 +34,11 @@ class Seed extends Actor with ActorLogging {
     case WorkerHere => 
       log.info("Worker registered at seed node (worker = {})", sender)
       for (m <- master) sender ! MasterRef(m)
-      context.watch(sender)
-      workers ::= sender
+      // workers repeat the handshake until they obtain the master
+      if (!workers.contains(sender)) {
+        context.watch(sender)
+        workers ::= sender
+      }
     
     case Terminated(term) =>
       log.info("Actor = {} terminated!", term)
@@ -54,7 +57,7 @@ class Seed extends Actor with ActorLogging {
 
 object Seed {
   
-  def props = Props[Seed]
+  def props = Props[Seed].withDispatcher("dispatchers.control")
   
   private[backend] case class MasterRef(master: ActorRef)
   private[backend] case class MasterShutdown()
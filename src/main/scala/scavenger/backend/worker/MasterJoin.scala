@@ -48,6 +48,10 @@ with SeedJoin {
   /** Establishes connection to the master node.
     * Assumes that the connection to seed node has already been established.
     * Requires a `Reminder` that initiates the connection process.
+    *
+    * The seed forwards the master reference as soon as the master
+    * registers, so the requests are repeated only as a fallback,
+    * with exponentially growing delays.
     */
   def connectingToMaster(
     seedMsg: HandshakeMessage,
@@ -56,9 +60,13 @@ with SeedJoin {
   ): Receive = ({
 
     case r: Reminder if(isRelevant(r)) => {
+      scheduleMasterRequest(0)
+    }
+
+    case RetryMasterRequest(attempt) => {
       if (master == null) {
         seedRef ! seedMsg
-        remindMyself(30, "trying to resolve master")
+        scheduleMasterRequest(attempt + 1)
       }
     }
     
@@ -66,11 +74,7 @@ with SeedJoin {
     // After this we can send a handshake message to the master,
     // and switch to the next behavior
     case MasterRef(ref) => {
-      master = ref
-      master ! masterMsg
-      log.info(
-        "Sent handshake to the master, switching into normal operation mode"
-      )
+      joinMaster(ref, masterMsg)
       context.become(nextBehavior orElse handleHandshakeRemnants)
     }
     
@@ -84,11 +88,34 @@ with SeedJoin {
     }
   }: Receive)
 
+  /** Remembers the master and sends the handshake message to it.
+    *
+    * Used directly by embedded workers, which obtain the reference to
+    * the master without the help of the seed.
+    */
+  protected def joinMaster(ref: ActorRef, masterMsg: HandshakeMessage): Unit = {
+    master = ref
+    master ! masterMsg
+    log.info(
+      "Sent handshake to the master, switching into normal operation mode"
+    )
+  }
+
+  private def scheduleMasterRequest(attempt: Int): Unit = {
+    context.system.scheduler.scheduleOnce(
+      retryDelayMillis(attempt) milliseconds,
+      self,
+      RetryMasterRequest(attempt)
+    )
+  }
+
   def handleHandshakeRemnants: Receive = ({
     case MasterRef(_) => { /* don't need it anymore, ignore */ }
+    case RetryMasterRequest(_) => { /* already connected, ignore */ }
   }: Receive)
 }
 
 object MasterJoin {
-
+  /** Sent to oneself when the master should be requested from seed again */
+  private[worker] case class RetryMasterRequest(attempt: Int)
 }
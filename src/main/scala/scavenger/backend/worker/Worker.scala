@@ -7,6 +7,7 @@ import scala.concurrent.ExecutionContext
 import scavenger._
 import scavenger.backend._
 import scavenger.backend.LastMessageTimeMonitoring._
+import scavenger.backend.master.CachingAdvisor
 import scavenger.categories.formalccc
 
 /** Actor that controls the computation on
@@ -18,10 +19,13 @@ import scavenger.categories.formalccc
   * a job request to the master. Then it processes
   * the job, and sends back the result.
   *
+  * Embedded workers obtain the reference to the master directly,
+  * and skip the handshake with the seed node.
+  *
   * @since 2.1
   * @author Andrey Tyukin
   */
-class Worker(seedPath: ActorPath) 
+class Worker(seedPath: Option[ActorPath], embeddedMaster: Option[ActorRef]) 
 extends Actor 
 with ActorLogging
 with SeedJoin
@@ -38,19 +42,28 @@ with UnexpectedMessageHandler {
   import Worker._
 
   // initialization phase requires a reminder that triggers the connection
-  // establishing behavior.
-  remindMyself(1, "Try to connect to master")
+  // establishing behavior. Embedded workers contact the master right away.
+  embeddedMaster match {
+    case Some(m) => joinMaster(m, WorkerHere)
+    case None => remindMyselfNow("Try to connect to master")
+  }
 
   // The initial connection phase
-  def receive = connectingToSeed(
-    seedPath,    // where to send the handshake
-    WorkerHere,  // what exactly to send
-    connectingToMaster(
-      WorkerHere, 
-      WorkerHere,
-      awaitingJob  // what to do after connection is established
+  def receive = (seedPath, embeddedMaster) match {
+    case (_, Some(_)) => awaitingJob
+    case (Some(path), None) => connectingToSeed(
+      path,        // where to send the handshake
+      WorkerHere,  // what exactly to send
+      connectingToMaster(
+        WorkerHere, 
+        WorkerHere,
+        awaitingJob  // what to do after connection is established
+      )
+    ) orElse handleUnexpectedMessages
+    case (None, None) => throw new IllegalArgumentException(
+      "Worker requires either a seed path or a reference to the master"
     )
-  ) orElse handleUnexpectedMessages
+  }
 
   private val awaitingJob: Receive = ({
     
@@ -69,11 +82,30 @@ with UnexpectedMessageHandler {
     // handle jobs from master (simply let them wait for results from the
     // cache)
     // The original `id` of the job is stored in the closure
-    case InternalJob(label, job) => {
+    case InternalJob(label, job, checkpoints) => {
       log.info("Got a job! " + job + " switching into working state")
       context.become(working)
-      provideComputationContext.submit(job).map{
+      running = Some(new RunningJob(label, checkpoints))
+      val ctx = provideComputationContext
+      val result = job.synchronousEvaluation match {
+        // synchronous atom with explicit input that is not cached here:
+        // evaluate it right away on a compute thread
+        case Some(eval) if (!job.cachingPolicy.cacheLocally) => 
+          val computeCtx = ctx.executionContextFor(job.difficulty)
+          Future{ 
+            val start = System.nanoTime
+            val x = eval(ctx)
+            if (observesComputations && job.difficulty == Expensive) {
+              observed(job, System.nanoTime - start, x)
+            }
+            x
+          }(computeCtx)
+        case _ => ctx.submit(job)
+      }
+      result.map{
         x => FinalResult(label, x)
+      }.recover{
+        case e: Throwable => JobFailed(label, e)
       } pipeTo self
     }
     
@@ -86,12 +118,16 @@ with UnexpectedMessageHandler {
     
     case irrelevant: Reminder => { /* ignore */ }
 
+    // the job has been completed before it could be preempted
+    case Preempt(_) => { /* ignore */ }
+
     case Ping => sender ! Echo
 
   }: Receive) orElse 
   handleExternalRequests orElse 
   handleLocalResponses orElse
   handleScheduling orElse
+  handleBroadcastTraffic orElse
   handleHandshakeRemnants orElse
   monitorCache orElse
   handleUnexpectedMessages
@@ -107,6 +143,12 @@ with UnexpectedMessageHandler {
     case Ping => sender ! Echo
     case JobsAvailable => {} // ignore
     case NoJobsAvailable => {} // ignore
+    case Preempt(label) => {
+      for (j <- running if j.label == label) {
+        log.info("Job {} will stop at its next checkpoint", label)
+        j.preempted = true
+      }
+    }
     case FinalResult(label, value) => {
       log.debug(
         "Received FinalResult from " + sender + ", " +
@@ -114,9 +156,19 @@ with UnexpectedMessageHandler {
         "switching back into `awaitingJob` mode.", label
       )
       context.become(awaitingJob) // switch back into `awaitingJob` mode
+      running = None
       master ! InternalResult(label, value)
     }
-    case InternalJob(label, job) => {
+    case JobFailed(label, cause) => {
+      cause match {
+        case p: JobPreempted => log.info("Job {} preempted", label)
+        case _ => log.error("Job {} failed: {}", label, cause)
+      }
+      context.become(awaitingJob)
+      running = None
+      master ! InternalFailure(label, cause)
+    }
+    case InternalJob(label, job, _) => {
       log.error(
         "Received a job while already being at work, " +
         "id = " + label
@@ -129,18 +181,87 @@ with UnexpectedMessageHandler {
   }: Receive) orElse 
   handleExternalRequests orElse 
   handleLocalResponses orElse 
+  handleBroadcastTraffic orElse
   handleHandshakeRemnants orElse 
   monitorCache orElse
   handleUnexpectedMessages
+
+  // the job that is currently computed, accessed by the atoms
+  @volatile private var running: Option[RunningJob] = None
+
+  /** Checkpoints of the running job are recorded locally, and 
+    * sent to the master, so that the job can be resumed elsewhere.
+    */
+  override protected val jobProgress = Some(new JobProgress {
+    def checkpoint(id: formalccc.Elem, state: Any): Unit = {
+      for (j <- running) {
+        j.checkpoints.put(id, state)
+        master ! Checkpointed(j.label, id, state)
+        if (j.preempted) {
+          throw new JobPreempted("Job " + j.label + " has been preempted")
+        }
+      }
+    }
+    def lastCheckpoint(id: formalccc.Elem): Option[Any] = 
+      running.flatMap{ j => Option(j.checkpoints.get(id)) }
+  })
+
+  override protected lazy val observesComputations: Boolean = 
+    CachingAdvisor.enabled(context.system.settings.config)
+
+  /** Reports computations that are not cached globally to the 
+    * `CachingAdvisor` of the master.
+    */
+  override protected def observed(
+    job: Computation[Any], 
+    nanos: Long, 
+    result: Any
+  ): Unit = {
+    val policy = job.cachingPolicy
+    if (!policy.cacheGlobally && !policy.backup) {
+      master ! CachingAdvisor.Observed(
+        job.identifier, 
+        nanos, 
+        CachingAdvisor.serializedSize(result)
+      )
+    }
+  }
+
+  /** Broadcast values are pulled from the master on first use */
+  protected def fetchBroadcast(id: formalccc.Elem): Unit = {
+    master ! BroadcastStore.FetchBroadcast(id)
+  }
 }
 
 /** The worker object describes various kinds of messages that
   * can be sent by a worker.
   */
 object Worker {
-  def props(seedPath: ActorPath) = Props(classOf[Worker], seedPath)
+  def props(seedPath: ActorPath) = 
+    Props(classOf[Worker], Some(seedPath), None)
+      .withDispatcher("dispatchers.control")
+
+  /** Props for a worker that runs in the same actor system as the
+    * master, and connects to it directly.
+    */
+  def embeddedProps(master: ActorRef) = 
+    Props(classOf[Worker], None, Some(master))
+      .withDispatcher("dispatchers.control")
   
   private[backend] case object WorkerHere extends HandshakeMessage
   private[backend] case object NeedJob
   private[Worker] case class FinalResult(label: InternalLabel, x: Any)
+  private[Worker] case class JobFailed(label: InternalLabel, e: Throwable)
+
+  /** Job that is currently computed by a worker, together with the 
+    * checkpoints of its computations.
+    */
+  private[Worker] class RunningJob(
+    val label: InternalLabel, 
+    resumeFrom: Map[formalccc.Elem, Any]
+  ) {
+    val checkpoints = new java.util.concurrent.ConcurrentHashMap[formalccc.Elem, Any]
+    for ((id, state) <- resumeFrom) checkpoints.put(id, state)
+    @volatile var preempted = false
+  }
 }
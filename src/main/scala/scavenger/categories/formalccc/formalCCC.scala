@@ -1,10 +1,18 @@
 package scavenger.categories.formalccc
 
 sealed trait Elem {
-  // two methods that must be implemented,
-  // `toString` should be overridden
+  // three methods that must be implemented
   def apply(x: Elem): Elem
   protected def composeNonId(right: Elem): Elem
+  def appendTo(sb: StringBuilder): StringBuilder
+
+  // identifiers of long pipelines are deep trees: the string 
+  // representation is built in a single buffer (nested `format`s would
+  // copy the inner parts again on every level), and the structural 
+  // hash code is computed only once
+  override def toString = appendTo(new StringBuilder).toString
+  override lazy val hashCode: Int = 
+    scala.runtime.ScalaRunTime._hashCode(this.asInstanceOf[Product])
   
   def o(other: Elem): Elem = other match {
     case Id => this
@@ -24,7 +32,7 @@ sealed trait Elem {
 }
 
 case class Atom(name: String) extends Elem {
-  override def toString = name
+  def appendTo(sb: StringBuilder) = sb ++= name
   def apply(arg: Elem) = Application(this, arg)
   def composeNonId(other: Elem) = Composition(this, other)
 }
@@ -34,26 +42,103 @@ class CouplesNotFunctions(
 ) extends RuntimeException
 
 case class Couple(x: Elem, y: Elem) extends Elem {
-  override def toString = "(%s,%s)".format(x, y)
+  def appendTo(sb: StringBuilder) = 
+    y.appendTo(x.appendTo(sb += '(') += ',') += ')'
   def apply(arg: Elem) = throw new CouplesNotFunctions
   def composeNonId(other: Elem) = ???
   override def o(other: Elem): Elem = throw new CouplesNotFunctions
 }
+/** Tuple with arbitrary number of components, generalizes `Couple` */
+case class Tuple(components: List[Elem]) extends Elem {
+  def appendTo(sb: StringBuilder) = {
+    sb += '('
+    for ((c, i) <- components.zipWithIndex) {
+      if (i > 0) sb += ','
+      c.appendTo(sb)
+    }
+    sb += ')'
+  }
+  def apply(arg: Elem) = throw new CouplesNotFunctions
+  def composeNonId(other: Elem) = ???
+  override def o(other: Elem): Elem = throw new CouplesNotFunctions
+}
+
+/** The `index`-th of `count` parts of a partitioned element */
+case class Partition(whole: Elem, index: Int, count: Int) extends Elem {
+  def appendTo(sb: StringBuilder) = 
+    whole.appendTo(sb) ++= "[%d/%d]".format(index, count)
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
+/** The elements of a sequence with indices from `from` (inclusive) 
+  * until `until` (exclusive)
+  */
+case class Chunk(whole: Elem, from: Int, until: Int) extends Elem {
+  def appendTo(sb: StringBuilder) = 
+    whole.appendTo(sb) ++= "{%d..%d}".format(from, until)
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
+/** Function that applies `f` to every element of a sequence */
+case class Elementwise(f: Elem) extends Elem {
+  def appendTo(sb: StringBuilder) = f.appendTo(sb ++= "map(") += ')'
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
+/** Function that combines all elements of a sequence with `op` */
+case class Reduce(op: Elem) extends Elem {
+  def appendTo(sb: StringBuilder) = op.appendTo(sb ++= "reduce(") += ')'
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
+/** Function that applies `f` `n` times */
+case class Iterate(f: Elem, n: Int) extends Elem {
+  def appendTo(sb: StringBuilder) = 
+    f.appendTo(sb ++= "iterate(") ++= ", " ++= n.toString += ')'
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
+/** Function that applies `f` until `p` holds for two consecutive 
+  * values, but at most `n` times 
+  */
+case class IterateUntil(f: Elem, p: Elem, n: Int) extends Elem {
+  def appendTo(sb: StringBuilder) = 
+    p.appendTo(f.appendTo(sb ++= "iterateUntil(") ++= ", ") ++= ", " ++=
+    n.toString += ')'
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
+/** Tells whether an iteration has stopped because it converged */
+case class Converged(iteration: Elem) extends Elem {
+  def appendTo(sb: StringBuilder) = 
+    iteration.appendTo(sb ++= "converged(") += ')'
+  def apply(arg: Elem) = Application(this, arg)
+  def composeNonId(other: Elem) = Composition(this, other)
+}
+
 case class Application(f: Elem, x: Elem) extends Elem {
-  override def toString = "%s(%s)".format(f, x)
+  def appendTo(sb: StringBuilder) = 
+    x.appendTo(f.appendTo(sb) += '(') += ')'
   def apply(arg: Elem) = Application(this, arg)
   def composeNonId(other: Elem) = Composition(this, other)
 }
 
 case object Id extends Elem {
-  override def toString = "Id"
+  def appendTo(sb: StringBuilder) = sb ++= "Id"
   def apply(x: Elem) = x
   def composeNonId(other: Elem) = other
 }
 
 case class Composition(second: Elem, first: Elem)
 extends Elem {
-  override def toString = "%s o %s".format(second, first)
+  def appendTo(sb: StringBuilder) = 
+    first.appendTo(second.appendTo(sb) ++= " o ")
   def apply(x: Elem) = second(first(x))
   def composeNonId(other: Elem) = second o (first o other)
 }
@@ -62,11 +147,12 @@ case class Pair(f: Elem, g: Elem)
 extends Elem {
   def apply(x: Elem) = Couple(f(x), g(x))
   def composeNonId(other: Elem) = Pair(f o other, g o other)
-  override def toString = "<%s,%s>".format(f, g)
+  def appendTo(sb: StringBuilder) = 
+    g.appendTo(f.appendTo(sb += '<') += ',') += '>'
 }
 
 case object Fst extends Elem {
-  override def toString = "Fst"
+  def appendTo(sb: StringBuilder) = sb ++= "Fst"
   def apply(xy: Elem) = xy match {
     case Application(f, x) => (this o f)(x)
     case Couple(x, y) => x
@@ -79,7 +165,7 @@ case object Fst extends Elem {
 }
 
 case object Snd extends Elem {
-  override def toString = "Snd"
+  def appendTo(sb: StringBuilder) = sb ++= "Snd"
   def apply(xy: Elem) = xy match {
     case Application(f, x) => (this o f)(x)
     case Couple(x, y) => y
@@ -92,19 +178,20 @@ case object Snd extends Elem {
 }
 
 case class Curry(f: Elem) extends Elem {
-  override def toString = "lambda(%s)".format(f)
+  def appendTo(sb: StringBuilder) = f.appendTo(sb ++= "lambda(") += ')'
   def apply(x: Elem) = PartialApplication(f, x)
   def composeNonId(other: Elem) = Composition(this, other)
 }
 
 case class PartialApplication(f: Elem, x: Elem) extends Elem {
-  override def toString = "lambda(%s)(%s)".format(f, x)
+  def appendTo(sb: StringBuilder) = 
+    x.appendTo(f.appendTo(sb ++= "lambda(") ++= ")(") += ')'
   def apply(y: Elem) = f(Couple(x, y))
   def composeNonId(other: Elem) = Composition(this, other)
 }
 
 case object Eval extends Elem {
-  override def toString = "eval"
+  def appendTo(sb: StringBuilder) = sb ++= "eval"
   def apply(a: Elem) = a match {
     case Application(f, x) => (this o f)(x)
     case Couple(Application(Curry(f), x), y) => f(Couple(x, y))
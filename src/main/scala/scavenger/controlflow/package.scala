@@ -1,16 +1,26 @@
 package scavenger
 
-import scala.concurrent.{Future, ExecutionContext, Await}
+import scala.concurrent.{Future, Promise, ExecutionContext, Await}
 import scala.concurrent.duration._
+import scala.util.{Try, Success, Failure}
+import scala.util.control.NonFatal
 
 /** This package contains implementation of
   * control flow structures like `if` and `while` with
   * bodies that return a result asynchronously.
   *
+  * The loops do not build chains of `flatMap`s: iterations whose 
+  * futures are already completed are executed in a plain loop, all 
+  * other iterations are resumed by a callback, so that loops with 
+  * millions of iterations run in constant stack and memory.
+  *
   * @since 2.1
   * @author Andrey Tyukin
   */
 package object controlflow {
+
+  private val Continue = Future.successful(true)
+  private val Stop = Future.successful(false)
   
   def full_async_while[U](
     p: => Future[Boolean]
@@ -18,10 +28,13 @@ package object controlflow {
     f: => Future[U]
   )(
     implicit exec: ExecutionContext
-  ): Future[Unit] = {
-    p.flatMap{ 
-      if (_) f.flatMap(u => full_async_while(p)(f)) 
-      else Future { () }
+  ): Future[Unit] = loop{ () =>
+    val cond = p
+    cond.value match {
+      case Some(Success(true)) => continueAfter(f)
+      case Some(Success(false)) => Stop
+      case Some(Failure(e)) => Future.failed(e)
+      case None => cond.flatMap{ if (_) continueAfter(f) else Stop }
     }
   }
   
@@ -31,9 +44,7 @@ package object controlflow {
     f: => Future[U]
   )(
     implicit exec: ExecutionContext
-  ): Future[Unit] = {
-    if(p) f.flatMap{u => async_while(p)(f)} else Future{()} 
-  }
+  ): Future[Unit] = loop{ () => if (p) continueAfter(f) else Stop }
   
   def async_if[R, A <: R, B <: R](
     p: => Future[Boolean]
@@ -46,6 +57,145 @@ package object controlflow {
   ): Future[R] = {
     p.flatMap{ if (_) t else f }
   }
+
+  /** Applies `f` to all elements, with at most `maxInFlight` futures 
+    * running at the same time. 
+    *
+    * The elements are requested from `xs` only when they are needed, 
+    * so that `xs` can be a lazily generated iterator of arbitrary length.
+    * Fails as soon as one of the futures fails, or `xs` throws an 
+    * exception, no further elements are processed afterwards.
+    */
+  def async_foreach[X, U](
+    xs: TraversableOnce[X], 
+    maxInFlight: Int
+  )(
+    f: X => Future[U]
+  )(
+    implicit exec: ExecutionContext
+  ): Future[Unit] = {
+    require(maxInFlight > 0, "async_foreach: maxInFlight must be positive")
+    val it = xs.toIterator
+    val done = Promise[Unit]
+    val lock = new AnyRef
+    var inFlight = 0
+
+    def finished(res: Try[U]): Unit = lock.synchronized {
+      inFlight -= 1
+      for (e <- res.failed) done.tryFailure(e)
+    }
+
+    // takes the next element, if another future may be started,
+    // fails the result if the iterator throws
+    def take(): Option[X] = lock.synchronized {
+      if (done.isCompleted || inFlight >= maxInFlight) None
+      else Try{ if (it.hasNext) Some(it.next()) else None } match {
+        case Success(Some(x)) => { inFlight += 1; Some(x) }
+        case Success(None) => { if (inFlight == 0) done.trySuccess(()); None }
+        case Failure(e) => { done.tryFailure(e); None }
+      }
+    }
+
+    // starts new futures until `maxInFlight` are running
+    def fill(): Unit = {
+      var again = true
+      while (again) {
+        take() match {
+          case None => again = false
+          case Some(x) => {
+            val fut = attempt(f(x))
+            fut.value match {
+              case Some(res) => finished(res)
+              case None => fut.onComplete{ res => finished(res); fill() }
+            }
+          }
+        }
+      }
+    }
+
+    fill()
+    done.future
+  }
+
+  /** Applies `f` to all elements with at most `maxInFlight` futures 
+    * running at the same time (see `async_foreach`), and combines 
+    * the results with `op`.
+    *
+    * The results are combined in the order in which they become 
+    * available, which is the order of `xs` only if `maxInFlight` is `1`.
+    */
+  def async_fold[X, Y, A](
+    xs: TraversableOnce[X], 
+    maxInFlight: Int
+  )(
+    zero: A
+  )(
+    f: X => Future[Y]
+  )(
+    op: (A, Y) => A
+  )(
+    implicit exec: ExecutionContext
+  ): Future[A] = {
+    val lock = new AnyRef
+    var acc = zero
+    def combine(y: Y): Unit = lock.synchronized { acc = op(acc, y) }
+    async_foreach(xs, maxInFlight){ x =>
+      val fy = f(x)
+      fy.value match {
+        case Some(Success(y)) => { combine(y); Continue }
+        case Some(Failure(e)) => fy
+        case None => fy.map(combine)
+      }
+    }.map{ _ => lock.synchronized { acc } }
+  }
+
+  /** Runs `step` until it returns `false` or fails. 
+    *
+    * Steps that are completed immediately are repeated in a plain loop,
+    * otherwise the loop is resumed by a callback on `exec`.
+    */
+  private def loop(
+    step: () => Future[Boolean]
+  )(
+    implicit exec: ExecutionContext
+  ): Future[Unit] = {
+    val done = Promise[Unit]
+    def run(): Unit = {
+      var again = true
+      while (again) {
+        val s = attempt(step())
+        s.value match {
+          case Some(Success(true)) => // next iteration right here
+          case Some(Success(false)) => { done.success(()); again = false }
+          case Some(Failure(e)) => { done.failure(e); again = false }
+          case None => {
+            again = false
+            s.onComplete{
+              case Success(true) => run()
+              case Success(false) => done.success(())
+              case Failure(e) => done.failure(e)
+            }
+          }
+        }
+      }
+    }
+    run()
+    done.future
+  }
+
+  // Kept out of the loops, a `try` in the middle of a loop prevents the 
+  // JIT from compiling the loop while it is running
+  private def attempt[T](body: => Future[T]): Future[T] = 
+    try { body } catch { case NonFatal(e) => Future.failed(e) }
+
+  /** Returns `true` as soon as the body is completed successfully */
+  private def continueAfter[U](body: Future[U])(
+    implicit exec: ExecutionContext
+  ): Future[Boolean] = body.value match {
+    case Some(Success(_)) => Continue
+    case Some(Failure(e)) => Future.failed(e)
+    case None => body.map{ _ => true }
+  }
   
   // def main(args: Array[String]): Unit = {
   //   def foo(i: Int)(implicit exec: ExecutionContext): Future[Int] =
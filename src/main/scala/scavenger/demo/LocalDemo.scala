@@ -1,5 +1,6 @@
 package scavenger.demo
 
+import scala.concurrent.Await
 import scala.concurrent.Future
 import scala.concurrent.duration._
 import scala.language.postfixOps
@@ -17,7 +18,7 @@ import scavenger.app.LocalScavengerApp
   */
 object LocalDemo extends LocalScavengerApp(4) {
   def main(args: Array[String]): Unit = {
-    scavengerInit()
+    Await.result(scavengerInit(), 60 seconds)
 
     val f0 = expensive("2pow"){ 
       (x: Int) => {
@@ -22,37 +22,126 @@ package object scavenger extends Serializable{
   }
 
   implicit def synchronousToFull[X, Y](f: (X, Context) => Y): 
-    ((X, Context) => Future[Y]) = {
-    case (x, ctx) => Future(f(x, ctx))(ctx.executionContext)
+    ((X, Context) => Future[Y]) = new SynchronousFunction[X, Y] {
+    def applySync(x: X, ctx: Context): Y = f(x, ctx)
   }
 
   implicit def simpleToFull[X, Y](f: X => Y):
-    ((X, Context) => Future[Y]) = {
-    case (x, ctx) => Future(f(x))(ctx.executionContext)
+    ((X, Context) => Future[Y]) = new SynchronousFunction[X, Y] {
+    def applySync(x: X, ctx: Context): Y = f(x)
   }
 
   // Generic atomic algorithm constructor that builds 
   // Atomic algorithms from functions.
+  // Synchronous functions become synchronous algorithms.
   private def atomicAlgorithmConstructor[X, Y](d: Difficulty)(
     algorithmId: String, f: (X, Context) => Future[Y]
-  ): Algorithm[X, Y] = new AtomicAlgorithm[X, Y] {
+  ): AtomicAlgorithm[X, Y] = f match {
+    case s: SynchronousFunction[X @unchecked, Y @unchecked] if !s.isBlocking => 
+      new SynchronousAlgorithm[X, Y] {
+        def identifier = formalccc.Atom(algorithmId)
+        def difficulty = d
+        def applySync(x: X, ctx: Context) = s.applySync(x, ctx)
+      }
+    case s: SynchronousFunction[X @unchecked, Y @unchecked] => 
+      new AtomicAlgorithm[X, Y] {
+        def identifier = formalccc.Atom(algorithmId)
+        def difficulty = d
+        def apply(x: X, ctx: Context) = f(x, ctx)
+        override def isBlocking = true
+      }
+    case _ => new AtomicAlgorithm[X, Y] {
       def identifier = formalccc.Atom(algorithmId)
       def difficulty = d
       def apply(x: X, ctx: Context) = f(x, ctx)
     }
+  }
 
   // Three different constructors for atomic algorithms
   /** Constructs a cheap atomic algorithm with specified identifier */
   def cheap[X, Y](algorithmId: String)(f: (X, Context) => Future[Y]):
-    Algorithm[X, Y] = atomicAlgorithmConstructor(Cheap)(algorithmId, f)
+    AtomicAlgorithm[X, Y] = atomicAlgorithmConstructor(Cheap)(algorithmId, f)
 
   /** Constructs an expensive atomic algorithm with specified identifier */
   def expensive[X, Y](algorithmId: String)(f: (X, Context) => Future[Y]):
-    Algorithm[X, Y] = atomicAlgorithmConstructor(Expensive)(algorithmId, f)
+    AtomicAlgorithm[X, Y] = atomicAlgorithmConstructor(Expensive)(algorithmId, f)
 
   /** Constructs a parallelizable atomic algorithm with specified identifier */
   def parallel[X, Y](algorithmId: String)(f: (X, Context) => Future[Y]):
-    Algorithm[X, Y] = atomicAlgorithmConstructor(Parallel)(algorithmId, f)
+    AtomicAlgorithm[X, Y] = atomicAlgorithmConstructor(Parallel)(algorithmId, f)
+
+  /** Applies an atomic algorithm to every element of a sequence.
+    *
+    * The sequence is split into chunks of size `chunkSize` (or into
+    * roughly `DataParallel.DefaultNumChunks` chunks if `chunkSize` is not
+    * positive), every chunk is processed by a separate, globally cached
+    * job, and the results are gathered in the original order.
+    */
+  def parMap[X, Y](xs: Computation[Seq[X]], chunkSize: Int = 0)(
+    f: AtomicAlgorithm[X, Y]
+  ): Computation[List[Y]] = ParMap(xs, f, chunkSize)
+
+  /** Combines all elements of a non-empty sequence with an associative
+    * binary operation.
+    *
+    * Every chunk is reduced by a separate, globally cached job,
+    * the partial results are combined by a binary `treeReduce`.
+    */
+  def parReduce[X](xs: Computation[Seq[X]], chunkSize: Int = 0)(
+    op: AtomicAlgorithm[(X, X), X]
+  ): Computation[X] = ParReduce(xs, op, chunkSize)
+
+  /** Combines many computations with an associative binary combiner
+    * in a tree of the specified arity.
+    *
+    * The whole tree is submitted as a single job, so that the partial 
+    * results are combined by a worker node (if the combiner is 
+    * `Expensive`), and the client obtains only the value at the root. 
+    * The combination steps are cached locally by the worker, the 
+    * partial results are not cached on the master.
+    */
+  def treeReduce[X](xs: Seq[Computation[X]], arity: Int = 2)(
+    combiner: Algorithm[(X, X), X]
+  ): Computation[X] = TreeReduce(xs, arity, combiner)
+
+  /** Algorithm that applies `f` `n` times.
+    *
+    * The steps run in a loop on a single node, the result has the 
+    * identifier `iterate(f, n)(x)`. Long iterations are split into
+    * separate jobs with checkpoints every `checkpointEvery` steps
+    * (see `Iteration`). The checkpoints are kept only with a 
+    * `checkpointPolicy` that caches them, e.g. with `cacheGlobally` set.
+    */
+  def iterate[X](
+    f: AtomicAlgorithm[X, X], 
+    n: Int,
+    checkpointEvery: Int = Iteration.DefaultCheckpointInterval,
+    checkpointPolicy: CachingPolicy = Iteration.DefaultCheckpointPolicy
+  ): Algorithm[X, X] = new Algorithm[X, X] {
+    def identifier = formalccc.Iterate(f.identifier, n)
+    def apply(x: Computation[X]): Computation[X] = 
+      Iteration(x, f, None, n, checkpointEvery, checkpointPolicy)
+  }
+
+  /** Algorithm that applies `f` until `converged` holds for the values 
+    * before and after a step, but at most `maxIterations` times.
+    *
+    * Executed like `iterate`, the result has the identifier 
+    * `iterateUntil(f, converged, maxIterations)(x)`.
+    */
+  def iterateUntil[X](
+    f: AtomicAlgorithm[X, X], 
+    converged: AtomicAlgorithm[(X, X), Boolean],
+    maxIterations: Int,
+    checkpointEvery: Int = Iteration.DefaultCheckpointInterval,
+    checkpointPolicy: CachingPolicy = Iteration.DefaultCheckpointPolicy
+  ): Algorithm[X, X] = new Algorithm[X, X] {
+    def identifier = 
+      formalccc.IterateUntil(f.identifier, converged.identifier, maxIterations)
+    def apply(x: Computation[X]): Computation[X] = Iteration(
+      x, f, Some(converged), maxIterations, checkpointEvery, checkpointPolicy
+    )
+  }
 
   /** Provides implicit `CanApplyTo`s
     * for the `apply` method of `Computation` that allows to 
@@ -0,0 +1,26 @@
+package scavenger.util
+
+import java.util.concurrent.{Executors, ExecutorService}
+import scala.concurrent.ExecutionContext
+import scala.util.Try
+
+/** Provides an execution context that runs every task on a separate 
+  * virtual thread, if the JVM supports virtual threads (Java 21+).
+  *
+  * Virtual threads are looked up by reflection, so that Scavenger still
+  * runs on older JVMs, where `virtualThreads` is simply `None`.
+  * Code that blocks on I/O does not occupy any platform thread while
+  * running on a virtual thread.
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+object BlockingExecution {
+
+  /** Execution context backed by virtual threads, if available */
+  lazy val virtualThreads: Option[ExecutionContext] = Try {
+    val factory = classOf[Executors].getMethod("newVirtualThreadPerTaskExecutor")
+    val executor = factory.invoke(null).asInstanceOf[ExecutorService]
+    ExecutionContext.fromExecutorService(executor)
+  }.toOption
+}
@@ -0,0 +1,262 @@
+package scavenger.util
+
+import java.util.concurrent.{ConcurrentHashMap, ConcurrentLinkedQueue}
+import java.util.concurrent.{Executors, ForkJoinPool}
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger}
+import scala.collection.JavaConverters._
+import scala.concurrent.{Future, Promise, ExecutionContext}
+import scala.util.control.NonFatal
+import scavenger._
+import scavenger.categories.formalccc
+
+/** Implementation of a context that evaluates everything in a single JVM,
+  * without any actors, messages or serialization.
+  *
+  * Unlike the `TrivialContext`, it respects the hints that are given
+  * by the `Computation`s:
+  *
+  *  - computations with any kind of `CachingPolicy` are cached in memory,
+  *    keyed by their identifiers, failed computations are not cached;
+  *  - at most `parallelism` `Expensive` computations are evaluated at the
+  *    same time, the rest waits in a queue; `Cheap` and `Parallel`
+  *    computations are started immediately; computations submitted by 
+  *    a running `Expensive` computation do not wait for another slot,
+  *    they are evaluated on the slot of the computation that needs them;
+  *  - if a computation is submitted while another computation with the
+  *    same identifier is still running, both requests share a single
+  *    evaluation.
+  *
+  * All computations run on a fork-join pool with `parallelism` threads,
+  * which is shut down by `shutdown`.
+  *
+  * Can be used as drop-in replacement of the actor-based backend on a
+  * single machine (see `InProcessScavengerApp`).
+  *
+  * @since 2.1
+  * @author Andrey Tyukin
+  */
+class InProcessContext(val parallelism: Int) extends Context {
+
+  def this() = this(Runtime.getRuntime.availableProcessors)
+
+  require(parallelism > 0, "InProcessContext: parallelism must be positive")
+
+  private val pool = new ForkJoinPool(parallelism)
+
+  implicit val executionContext: ExecutionContext =
+    ExecutionContext.fromExecutorService(pool)
+
+  // fallback for blocking computations if there are no virtual threads
+  private lazy val blockingPool = Executors.newCachedThreadPool()
+
+  override lazy val blockingExecutionContext: ExecutionContext =
+    BlockingExecution.virtualThreads.getOrElse(
+      ExecutionContext.fromExecutorService(blockingPool)
+    )
+
+  // results of computations that should be cached
+  private val cache = new ConcurrentHashMap[formalccc.Elem, Future[Any]]
+
+  // computations that should not be cached, but are currently running
+  private val running = new ConcurrentHashMap[formalccc.Elem, Future[Any]]
+
+  private val broadcasts = new ConcurrentHashMap[formalccc.Elem, Any]
+
+  // queue of `Expensive` computations that wait for a free slot
+  private val waitingExpensive = new ConcurrentLinkedQueue[WaitingJob]
+  private val waitingById = new ConcurrentHashMap[formalccc.Elem, WaitingJob]
+  private val runningExpensive = new AtomicInteger(0)
+
+  def submit[X](job: Computation[X]): Future[X] = submitJob(job, false)
+
+  /** Submits a job, `nestedSubmit` tells whether it is submitted by a
+    * running `Expensive` computation.
+    */
+  private def submitJob[X](job: Computation[X], nestedSubmit: Boolean):
+  Future[X] = {
+    val policy = job.cachingPolicy
+    val cached = policy.cacheGlobally || policy.cacheLocally || policy.backup
+    val inlined = if (cached) None else job.inlineResult
+    val result = inlined match {
+      case Some(res) => Promise[X]().complete(res).future
+      case None => 
+        if (cached) singleFlight(cache, job, true, nestedSubmit)
+        else singleFlight(running, job, false, nestedSubmit)
+    }
+    result.asInstanceOf[Future[X]]
+  }
+
+  /** Returns the future stored under the identifier of the job, or
+    * starts the job and stores its future.
+    *
+    * Futures are removed from the map as soon as they fail, or, if
+    * `retain` is `false`, as soon as they complete.
+    * If a nested submission finds the job waiting for a slot, the job is 
+    * started right away, because the submitting computation can not 
+    * release its slot before the job is done.
+    */
+  private def singleFlight(
+    map: ConcurrentHashMap[formalccc.Elem, Future[Any]],
+    job: Computation[Any],
+    retain: Boolean,
+    nestedSubmit: Boolean
+  ): Future[Any] = {
+    val id = job.identifier
+    val existing = map.get(id)
+    if (existing != null) {
+      if (nestedSubmit) startIfWaiting(id)
+      existing
+    } else {
+      val p = Promise[Any]
+      val previous = map.putIfAbsent(id, p.future)
+      if (previous != null) {
+        if (nestedSubmit) startIfWaiting(id)
+        previous
+      } else {
+        p.completeWith(start(job, nestedSubmit))
+        p.future.onComplete{
+          res => if (!retain || res.isFailure) map.remove(id, p.future)
+        }
+        p.future
+      }
+    }
+  }
+
+  /** Starts the evaluation of a job according to its difficulty.
+    *
+    * `Expensive` jobs wait for a free slot, unless they are submitted 
+    * by a running `Expensive` computation.
+    */
+  private def start(job: Computation[Any], nestedSubmit: Boolean): 
+  Future[Any] = {
+    job.difficulty match {
+      case Expensive if (!nestedSubmit) => {
+        val w = new WaitingJob(job)
+        waitingById.put(job.identifier, w)
+        waitingExpensive.add(w)
+        startWaitingExpensive()
+        w.result.future
+      }
+      case Expensive => Future{ job.compute(nested) }.flatMap{ f => f }
+      case _ => {
+        try {
+          job.compute(if (nestedSubmit) nested else this)
+        } catch {
+          case NonFatal(e) => Future.failed(e)
+        }
+      }
+    }
+  }
+
+  /** An `Expensive` job in the queue of `waitingExpensive` jobs */
+  private class WaitingJob(job: Computation[Any]) {
+    val result = Promise[Any]
+    private val started = new AtomicBoolean(false)
+
+    /** Starts the job, unless it has been started before.
+      *
+      * If the job `holdsSlot`, the slot is released as soon as the
+      * job is done. Returns `false` if the job has been started before.
+      */
+    def tryStart(holdsSlot: Boolean): Boolean = {
+      if (started.compareAndSet(false, true)) {
+        waitingById.remove(job.identifier, this)
+        val res = Future{ job.compute(nested) }.flatMap{ f => f }
+        if (holdsSlot) {
+          res.onComplete{ _ =>
+            runningExpensive.decrementAndGet()
+            startWaitingExpensive()
+          }
+        }
+        result.completeWith(res)
+        true
+      } else {
+        false
+      }
+    }
+  }
+
+  /** Starts the job with the specified identifier if it is still waiting
+    * for a slot, it then runs on the slot of the computation that 
+    * submitted it once more.
+    */
+  private def startIfWaiting(id: formalccc.Elem): Unit = {
+    val w = waitingById.get(id)
+    if (w != null) w.tryStart(false)
+  }
+
+  /** Starts waiting `Expensive` computations while there are free slots */
+  private def startWaitingExpensive(): Unit = {
+    var tryNext = true
+    while (tryNext) {
+      val n = runningExpensive.get
+      if (n >= parallelism || waitingExpensive.isEmpty) {
+        tryNext = false
+      } else if (runningExpensive.compareAndSet(n, n + 1)) {
+        val next = waitingExpensive.poll()
+        if (next == null || !next.tryStart(true)) {
+          runningExpensive.decrementAndGet()
+        }
+      }
+    }
+  }
+
+  /** Context of the `Expensive` computations.
+    *
+    * The jobs submitted through this context do not wait for another
+    * slot: if all slots were taken by computations that wait for their
+    * inputs, none of the inputs could ever be computed.
+    */
+  private object nested extends Context {
+    implicit def executionContext = InProcessContext.this.executionContext
+    override def blockingExecutionContext = 
+      InProcessContext.this.blockingExecutionContext
+    def submit[X](job: Computation[X]): Future[X] = submitJob(job, true)
+    def asExplicitComputation[X](job: Computation[X]):
+      Future[ExplicitComputation[X]] = {
+      for (x <- submit(job)) yield Value(job.identifier, x, CachingPolicy.Nowhere)
+    }
+    def broadcast[X](id: String, value: X): Broadcast[X] = 
+      InProcessContext.this.broadcast(id, value)
+    override def unbroadcast(b: Broadcast[_]): Unit = 
+      InProcessContext.this.unbroadcast(b)
+    private[scavenger] def resolveBroadcast[X](b: Broadcast[X]): Future[X] =
+      InProcessContext.this.resolveBroadcast(b)
+    private[scavenger] def dumpCacheKeys = InProcessContext.this.dumpCacheKeys
+  }
+
+  def asExplicitComputation[X](job: Computation[X]):
+    Future[ExplicitComputation[X]] = {
+    for (x <- submit(job)) yield Value(job.identifier, x, CachingPolicy.Nowhere)
+  }
+
+  def broadcast[X](id: String, value: X): Broadcast[X] = {
+    val b = new Broadcast[X](formalccc.Atom(id))
+    broadcasts.put(b.identifier, value)
+    b
+  }
+
+  override def unbroadcast(b: Broadcast[_]): Unit = {
+    broadcasts.remove(b.identifier)
+  }
+
+  private[scavenger] def resolveBroadcast[X](b: Broadcast[X]): Future[X] = {
+    if (broadcasts.containsKey(b.identifier)) {
+      Future.successful(broadcasts.get(b.identifier).asInstanceOf[X])
+    } else {
+      Future.failed(new NoSuchElementException("Unknown broadcast: " + b))
+    }
+  }
+
+  private[scavenger] def dumpCacheKeys: List[formalccc.Elem] =
+    cache.keySet.asScala.toList.sortBy(_.toString)
+
+  /** Stops the underlying thread pool.
+    *
+    * Running computations are not interrupted.
+    */
+  def shutdown(): Unit = {
+    pool.shutdown()
+    blockingPool.shutdown()
+  }
+}
@@ -4,6 +4,7 @@ import scala.concurrent.{Future,ExecutionContext,Await}
 import scala.concurrent.duration._
 import scala.language.postfixOps
 import scavenger._
+import scavenger.categories.formalccc
 
 /** Implementation of a trivial context that does nothing and
   * does not attempt to distribute or cache anything.
@@ -26,6 +27,27 @@ class TrivialContext(printActions: Boolean) extends Context {
     for (x <- submit(r)) yield Value(r.identifier, x, CachingPolicy.Nowhere)
   }
 
+  private val broadcasts = 
+    new java.util.concurrent.ConcurrentHashMap[formalccc.Elem, Any]
+
+  def broadcast[X](id: String, value: X): Broadcast[X] = {
+    val b = new Broadcast[X](formalccc.Atom(id))
+    broadcasts.put(b.identifier, value)
+    b
+  }
+
+  override def unbroadcast(b: Broadcast[_]): Unit = {
+    broadcasts.remove(b.identifier)
+  }
+
+  private[scavenger] def resolveBroadcast[X](b: Broadcast[X]): Future[X] = {
+    if (broadcasts.containsKey(b.identifier)) {
+      Future.successful(broadcasts.get(b.identifier).asInstanceOf[X])
+    } else {
+      Future.failed(new NoSuchElementException("Unknown broadcast: " + b))
+    }
+  }
+
   private[scavenger] def dumpCacheKeys = Nil
 }
 
@@ -0,0 +1,68 @@
+package scavenger
+
+import java.io.{ByteArrayOutputStream, ObjectOutputStream}
+import org.scalatest.FunSuite
+import scala.concurrent.Await
+import scala.concurrent.duration._
+import scavenger.categories.formalccc
+import scavenger.util.InProcessContext
+
+/** Checks the chunking of `ParMap` and `ParReduce`.
+  */
+class DataParallelSuite extends FunSuite {
+
+  val inc = expensive[Int, Int]("inc"){ (x: Int) => x + 1 }
+  val add = expensive[(Int, Int), Int]("add"){ (p: (Int, Int)) => p._1 + p._2 }
+
+  def input(n: Int): Computation[Seq[Int]] =
+    Computation("xs" + n, (1 to n).toList)
+
+  def serializedSize(x: Any): Int = {
+    val bytes = new ByteArrayOutputStream
+    val out = new ObjectOutputStream(bytes)
+    out.writeObject(x)
+    out.close()
+    bytes.size
+  }
+
+  def withContext(body: InProcessContext => Unit): Unit = {
+    val ctx = new InProcessContext(4)
+    try body(ctx) finally ctx.shutdown()
+  }
+
+  test("chunk jobs do not carry the whole input") {
+    def mapChunkSize(n: Int) =
+      serializedSize(ParMap(input(n), inc, 10).chunkJobs(1 to n).head)
+    def reduceChunkSize(n: Int) =
+      serializedSize(ParReduce(input(n), add, 10).chunkJobs(1 to n).head)
+    // only the identifier of the input grows by a few digits
+    assert(mapChunkSize(100000) < mapChunkSize(100) + 100)
+    assert(reduceChunkSize(100000) < reduceChunkSize(100) + 100)
+  }
+
+  test("chunk identifiers contain the element ranges") {
+    val xs = input(25)
+    val ids = DataParallel.chunks(xs.identifier, 1 to 25, 10).map(_.identifier)
+    assert(ids === List(
+      formalccc.Chunk(xs.identifier, 0, 10),
+      formalccc.Chunk(xs.identifier, 10, 20),
+      formalccc.Chunk(xs.identifier, 20, 25)
+    ))
+  }
+
+  test("parMap and parReduce preserve the order of the elements") {
+    withContext { ctx =>
+      val xs = input(100)
+      val ys = Await.result(ctx.submit(parMap(xs, 7)(inc)), 10.seconds)
+      assert(ys === (2 to 101).toList)
+      val sum = Await.result(ctx.submit(parReduce(xs, 7)(add)), 10.seconds)
+      assert(sum === 5050)
+    }
+  }
+
+  test("parReduce rejects empty sequences") {
+    intercept[IllegalArgumentException] {
+      ParReduce(Computation("empty", Nil: Seq[Int]), add, 10).chunkJobs(Nil)
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package scavenger
+
+import java.util.concurrent.{ConcurrentLinkedQueue, Executors, ThreadFactory}
+import org.scalatest.FunSuite
+import scala.collection.JavaConverters._
+import scala.concurrent.{Await, ExecutionContext, Future}
+import scala.concurrent.duration._
+import scavenger.util.TrivialContext
+
+/** Checks the loop, the segmentation and the checkpoints of `Iteration`.
+  */
+class IterationSuite extends FunSuite {
+
+  /** Records the checkpoints, and runs `Expensive` algorithms on a
+    * separate pool, whose threads are called "expensive".
+    */
+  class RecordingContext(resumeFrom: Option[Any]) extends TrivialContext(false) {
+    private val pool = Executors.newSingleThreadExecutor(new ThreadFactory {
+      def newThread(r: Runnable) = new Thread(r, "expensive")
+    })
+    val expensivePool = ExecutionContext.fromExecutorService(pool)
+    val checkpoints = new ConcurrentLinkedQueue[Any]
+    override def executionContextFor(d: Difficulty) =
+      if (d == Expensive) expensivePool else executionContext
+    override def checkpoint(state: Any): Unit = checkpoints.add(state)
+    override def lastCheckpoint = resumeFrom
+    def shutdown(): Unit = pool.shutdown()
+  }
+
+  def withContext(resumeFrom: Option[Any] = None)(
+    body: RecordingContext => Unit
+  ): Unit = {
+    val ctx = new RecordingContext(resumeFrom)
+    try body(ctx) finally ctx.shutdown()
+  }
+
+  val inc = expensive[Int, Int]("inc"){ (x: Int) =>
+    assert(Thread.currentThread.getName === "expensive")
+    x + 1
+  }
+
+  val asyncInc = expensive[Int, Int]("asyncInc"){ (x: Int, ctx: Context) =>
+    Future.successful(x + 1)
+  }
+
+  val x = Computation("x", 0)
+
+  test("iterations are only split if the segments are kept") {
+    assert(iterate(inc, 1000)(x).difficulty === Expensive)
+    val kept = CachingPolicy.Nowhere.copy(cacheGlobally = true)
+    assert(iterate(inc, 1000, 100, kept)(x).difficulty === Parallel)
+  }
+
+  test("steps run on the execution context for their difficulty") {
+    withContext() { ctx =>
+      assert(Await.result(ctx.submit(iterate(inc, 10)(x)), 5.seconds) === 10)
+      val checked = expensive[Int, Int]("checked"){ (x: Int, c: Context) =>
+        assert(c.executionContext eq ctx.expensivePool)
+        Future.successful(x + 1)
+      }
+      assert(Await.result(ctx.submit(iterate(checked, 10)(x)), 5.seconds) === 10)
+    }
+  }
+
+  test("the last checkpoint is recorded every interval") {
+    withContext() { ctx =>
+      assert(Await.result(ctx.submit(iterate(inc, 250, 100)(x)), 5.seconds) === 250)
+      assert(ctx.checkpoints.asScala.toList === List((100, 100), (200, 200)))
+    }
+  }
+
+  test("interrupted iterations resume from the last checkpoint") {
+    withContext(Some((200, 1000))) { ctx =>
+      val y = ctx.submit(iterate(asyncInc, 250, 100)(x))
+      assert(Await.result(y, 5.seconds) === 1050)
+    }
+  }
+
+  test("iterateUntil stops as soon as the values converge") {
+    withContext() { ctx =>
+      val half = cheap[Double, Double]("half"){ (d: Double) => d / 2 }
+      val close = cheap[(Double, Double), Boolean]("close"){
+        (p: (Double, Double)) => p._1 - p._2 < 0.1
+      }
+      val y = ctx.submit(iterateUntil(half, close, 1000)(Computation("one", 1.0)))
+      assert(Await.result(y, 5.seconds) === 0.0625)
+    }
+  }
+
+  test("many asynchronous steps do not exhaust the stack") {
+    withContext() { ctx =>
+      val y = ctx.submit(iterate(asyncInc, 100000, 0)(x))
+      assert(Await.result(y, 30.seconds) === 100000)
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package scavenger
+
+import org.scalatest.FunSuite
+import scala.concurrent.Await
+import scala.concurrent.duration._
+import scavenger.categories.formalccc
+import scavenger.util.InProcessContext
+
+/** Checks the partitions created by `PartitionedDataset.load`.
+  */
+class PartitionedDatasetSuite extends FunSuite {
+
+  val range = cheap[Int, List[Int]]("range"){ (i: Int) => 
+    (10 * i until 10 * i + 10).toList 
+  }
+  val sum = cheap[List[Int], Int]("sum"){ (xs: List[Int]) => xs.sum }
+
+  val data = PartitionedDataset.load("data", 3)(range)
+
+  test("partitions are loaded on the workers even by cheap loaders") {
+    for (p <- data.partitions) {
+      assert(p.difficulty === Expensive)
+      assert(p.cachingPolicy.cacheLocally)
+    }
+  }
+
+  test("partition identifiers contain the partition elements") {
+    val id = formalccc.Atom("data")
+    assert(data(1).identifier === 
+      range.identifier(formalccc.Partition(id, 1, 3)))
+  }
+
+  test("mapped partitions are collected in their original order") {
+    val ctx = new InProcessContext(2)
+    try {
+      val sums = Await.result(ctx.submit(data.map(sum).collect), 10.seconds)
+      assert(sums === List(45, 145, 245))
+    } finally ctx.shutdown()
+  }
+}
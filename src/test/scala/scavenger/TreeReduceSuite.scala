@@ -0,0 +1,62 @@
+package scavenger
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import org.scalatest.FunSuite
+import scala.collection.JavaConverters._
+import scala.concurrent.{Await, Future}
+import scala.concurrent.duration._
+import scavenger.util.{InProcessContext, TrivialContext}
+
+/** Checks the shape and the result of `TreeReduce`.
+  */
+class TreeReduceSuite extends FunSuite {
+
+  val concat = expensive[(String, String), String]("concat"){
+    (p: (String, String)) => p._1 + p._2
+  }
+
+  def leaves(n: Int): List[Computation[String]] =
+    (0 until n).toList.map{ i => Computation("s" + i, i.toString) }
+
+  /** Counts the nodes of each kind in the tree */
+  def count(c: Computation[Any], p: Computation[Any] => Boolean): Int =
+    (if (p(c)) 1 else 0) + c.children.toList.flatten.map{ count(_, p) }.sum
+
+  test("the tree is a single nested computation") {
+    val t = TreeReduce(leaves(10), 3, concat)
+    assert(t.identifier === t.tree.identifier)
+    assert(count(t.tree, _.cachingPolicy.cacheLocally) === 9)
+    assert(count(t.tree, _.isInstanceOf[TreeReduce[_]]) === 0)
+    assert(count(t.tree, _.isInstanceOf[Value[_]]) === 10)
+    assert(TreeReduce(leaves(1), 2, concat).tree === leaves(1).head)
+  }
+
+  test("the tree is submitted once, from the node that reduces it") {
+    val submitted = new ConcurrentLinkedQueue[Computation[Any]]
+    val ctx = new TrivialContext(false) {
+      override def submit[X](r: Computation[X]): Future[X] = {
+        submitted.add(r)
+        super.submit(r)
+      }
+    }
+    val t = TreeReduce(leaves(8), 2, concat)
+    assert(Await.result(t.compute(ctx), 5.seconds) === "01234567")
+    // only the nodes of the tree itself are computed, no partial result
+    // is wrapped into a new job
+    def nodes(c: Computation[Any]): List[Computation[Any]] =
+      c :: c.children.toList.flatten.flatMap(nodes)
+    val treeNodes = nodes(t.tree)
+    assert(submitted.asScala.head eq t.tree)
+    assert(submitted.asScala.forall{ c => treeNodes.exists(_ eq c) })
+  }
+
+  test("the order of the leaves is preserved") {
+    val ctx = new InProcessContext(4)
+    try {
+      for (n <- List(1, 2, 7, 64); arity <- List(2, 3, 5)) {
+        val y = ctx.submit(treeReduce(leaves(n), arity)(concat))
+        assert(Await.result(y, 10.seconds) === (0 until n).mkString)
+      }
+    } finally ctx.shutdown()
+  }
+}
@@ -0,0 +1,80 @@
+package scavenger.backend
+
+import org.scalatest.FunSuite
+import scavenger._
+
+/** Checks the walks of the `DagPlanner` over shared subcomputations.
+  */
+class DagPlannerSuite extends FunSuite {
+
+  val add = expensive[(Int, Int), Int]("add"){ (p: (Int, Int)) => p._1 + p._2 }
+  val inc = expensive[Int, Int]("inc"){ (x: Int) => x + 1 }
+  val neg = cheap[Int, Int]("neg"){ (x: Int) => -x }
+
+  val leaf = Computation("x", 1).cacheGlobally
+  val replace = (c: Computation[Any]) => c.cachingPolicy.cacheGlobally
+  val noMemo = (c: Computation[Any]) => None: Option[Computation[Any]]
+  val explicit = Map(
+    leaf.identifier -> (Value(leaf.identifier, 1, CachingPolicy.Nowhere):
+      ExplicitComputation[Any])
+  )
+
+  /** `depth` diamonds on top of each other, with `2^depth` paths */
+  def diamonds(depth: Int): Computation[Int] =
+    (1 to depth).foldLeft(leaf){ (c, _) => add(ComputationPair(c, c)) }
+
+  /** The two summands of a diamond */
+  def summands(c: Computation[Any]): (Computation[Any], Computation[Any]) =
+    c.children.get.head.children.get match {
+      case List(a, b) => (a, b)
+    }
+
+  /** Replaces the leaf, counts how often it has been asked */
+  class CountingPredicate extends (Computation[Any] => Boolean) {
+    var calls = 0
+    def apply(c: Computation[Any]) = { calls += 1; replace(c) }
+  }
+
+  test("frontier visits shared subcomputations once") {
+    val p = new CountingPredicate
+    assert(DagPlanner.frontier(diamonds(60), p, noMemo) === Some(List(leaf)))
+    assert(p.calls <= 4 * 60)
+  }
+
+  test("substitute rebuilds shared subcomputations once") {
+    val p = new CountingPredicate
+    val top = 
+      DagPlanner.substitute(diamonds(60), p, explicit, noMemo, (_, _) => ())
+    // every diamond is asked for once through each of its two summands
+    assert(p.calls <= 4 * 60)
+    var c: Computation[Any] = top
+    for (_ <- 1 to 60) {
+      val (a, b) = summands(c)
+      assert(a eq b)
+      c = a
+    }
+    assert(c eq explicit(leaf.identifier))
+  }
+
+  test("remembered subcomputations are not rebuilt") {
+    val d = diamonds(3)
+    val inner = summands(d)._1
+    val known = Value(inner.identifier, 4, CachingPolicy.Nowhere)
+    val memo = (c: Computation[Any]) =>
+      if (c eq inner) Some(known) else None
+    val rebuilt = DagPlanner.substitute(d, replace, explicit, memo, (_, _) => ())
+    assert(summands(rebuilt)._1 eq known)
+    assert(summands(rebuilt)._2 eq known)
+  }
+
+  test("only cheap stages on a single expensive input are fusible") {
+    val x = Computation("y", 2)
+    assert(DagPlanner.fusible(neg(neg(inc(x))), replace))
+    assert(!DagPlanner.fusible(inc(x), replace))
+    val sum = cheap[(Int, Int), Int]("sum"){ (p: (Int, Int)) => p._1 + p._2 }
+    val twoInputs = ComputationPair(inc(x), inc(Computation("z", 3)))
+    assert(!DagPlanner.fusible(sum(twoInputs), replace))
+    // the same input twice is a single input
+    assert(DagPlanner.fusible(sum(ComputationPair(inc(x), inc(x))), replace))
+  }
+}
@@ -0,0 +1,41 @@
+package scavenger.backend.master
+
+import org.scalatest.FunSuite
+import scavenger.categories.formalccc
+
+/** Checks the statistics kept by the `CachingAdvisor`.
+  */
+class CachingAdvisorSuite extends FunSuite {
+
+  import CachingAdvisor._
+
+  def id(i: Int): formalccc.Elem = formalccc.Atom("c" + i)
+
+  test("observations of the same identifier are accumulated") {
+    val t = new StatisticsTable(10)
+    t.record(id(0), 1000000, 10)
+    val s = t.record(id(0), 3000000, 20)
+    assert(s === Statistics(2, 4000000, 20))
+    assert(s.averageMillis === 2.0)
+    assert(t.toList === List((id(0), s)))
+  }
+
+  test("the table never grows beyond max-tracked") {
+    val t = new StatisticsTable(100)
+    // all identifiers computed twice, nothing is seen only once
+    for (i <- 0 until 1000; _ <- 1 to 2) {
+      t.record(id(i), 1, 1)
+      assert(t.size <= 100)
+    }
+    assert(t.toList.map(_._1) === (900 until 1000).map(id).toList)
+  }
+
+  test("the least recently observed identifiers are dropped first") {
+    val t = new StatisticsTable(3)
+    for (i <- 0 until 3) t.record(id(i), 1, 1)
+    t.record(id(0), 1, 1)
+    t.record(id(3), 1, 1)
+    assert(t.toList.map(_._1).toSet === Set(id(0), id(2), id(3)))
+    assert(t.toList.find(_._1 == id(0)).get._2.computations === 2)
+  }
+}
@@ -0,0 +1,74 @@
+package scavenger.backend.master
+
+import org.scalatest.FunSuite
+import scavenger._
+import scavenger.backend._
+import scavenger.categories.formalccc
+
+/** Checks the order and the indices of the `JobQueue`.
+  */
+class JobQueueSuite extends FunSuite {
+
+  def job(i: Int): InternalJob = InternalJob(
+    InternalLabel(formalccc.Atom("job" + i), i),
+    Computation("job" + i, i)
+  )
+
+  def ids(js: Iterable[InternalJob]): List[Long] =
+    js.map{ _.label.internalId }.toList
+
+  val data = formalccc.Atom("data")
+  def part(i: Int) = formalccc.Partition(data, i, 4)
+  def result(i: Int): formalccc.Elem = formalccc.Atom("result" + i)
+
+  test("jobs are dequeued in the order of arrival") {
+    val q = new JobQueue
+    for (i <- 0 until 5) q.enqueue(job(i), Set(part(i % 2)), Set.empty)
+    assert(q.size === 5)
+    assert(ids(List.fill(5)(q.dequeue())) === List(0, 1, 2, 3, 4))
+    assert(q.isEmpty)
+  }
+
+  test("local jobs are the first ones on the held partitions or results") {
+    val q = new JobQueue
+    q.enqueue(job(0), Set.empty, Set.empty)
+    q.enqueue(job(1), Set(part(0), part(1)), Set.empty)
+    q.enqueue(job(2), Set(part(1)), Set.empty)
+    q.enqueue(job(3), Set.empty, Set(result(7)))
+    q.enqueue(job(4), Set(part(0)), Set.empty)
+    // job 1 needs a partition that is not held
+    assert(ids(q.dequeueFirstLocal(Set(part(0)), Set.empty)) === List(4))
+    assert(ids(q.dequeueFirstLocal(Set(part(0)), Set(result(7)))) === List(3))
+    assert(q.dequeueFirstLocal(Set(part(0)), Set(result(7))) === None)
+    assert(ids(q.dequeueFirstLocal(Set(part(0), part(1)), Set.empty)) === List(1))
+    assert(ids(List.fill(2)(q.dequeue())) === List(0, 2))
+  }
+
+  test("assignable jobs work only on open partitions") {
+    val q = new JobQueue
+    q.enqueue(job(0), Set(part(0)), Set.empty)
+    q.enqueue(job(1), Set(part(0), part(1)), Set.empty)
+    q.enqueue(job(2), Set.empty, Set(result(0)))
+    q.enqueue(job(3), Set(part(1)), Set.empty)
+    val open = Set(part(1))
+    assert(ids(q.dequeueFirstAssignable(open)) === List(2))
+    assert(ids(q.dequeueFirstAssignable(open)) === List(3))
+    assert(q.dequeueFirstAssignable(open) === None)
+    assert(q.size === 2)
+    assert(ids(q.dequeueFirstAssignable(Set(part(0), part(1)))) === List(0))
+  }
+
+  test("searching a long queue looks only at the relevant jobs") {
+    val n = 100000
+    val q = new JobQueue
+    for (i <- 0 until n) q.enqueue(job(i), Set(part(i % 4)), Set(result(i)))
+    val start = System.nanoTime
+    // every request finds the job at the end of the queue
+    for (i <- (n - 1) to 0 by -1) {
+      assert(ids(q.dequeueFirstLocal(Set.empty, Set(result(i)))) === List(i))
+    }
+    assert(q.isEmpty)
+    // the quadratic scans took minutes here
+    assert(System.nanoTime - start < 30L * 1000 * 1000 * 1000)
+  }
+}
@@ -0,0 +1,31 @@
+package scavenger.controlflow
+
+import org.scalatest.FunSuite
+import scala.concurrent.{Await, Future}
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.duration._
+
+/** Checks the asynchronous loops of the `controlflow` package.
+  */
+class ControlFlowSuite extends FunSuite {
+
+  /** Throws instead of returning the element `n` */
+  def failingAt(n: Int): Iterator[Int] = Iterator.from(0).map{ i =>
+    if (i == n) throw new IllegalStateException("broken iterator") else i
+  }
+
+  test("async_foreach processes all elements") {
+    val sum = async_fold(1 to 1000, 4)(0){ x => Future(x) }(_ + _)
+    assert(Await.result(sum, 10.seconds) === 500500)
+  }
+
+  test("async_foreach fails if the iterator throws in a callback") {
+    val res = async_foreach(failingAt(10), 2){ x => Future{ Thread.sleep(5) } }
+    intercept[IllegalStateException] { Await.result(res, 10.seconds) }
+  }
+
+  test("async_foreach fails if the iterator throws right away") {
+    val res = async_foreach(failingAt(0), 2){ x => Future.successful(()) }
+    intercept[IllegalStateException] { Await.result(res, 10.seconds) }
+  }
+}
@@ -0,0 +1,48 @@
+package scavenger.util
+
+import org.scalatest.FunSuite
+import scala.concurrent.{Await, Future}
+import scala.concurrent.duration._
+import scavenger._
+
+/** Checks that nested `Expensive` computations can not exhaust the
+  * slots of an `InProcessContext`.
+  */
+class InProcessContextSuite extends FunSuite {
+
+  val f = expensive[Int, Int]("f"){ (x, ctx) => Future.successful(x + 1) }
+  val g = expensive[Int, Int]("g"){ (x, ctx) => Future.successful(2 * x) }
+
+  def withContext(parallelism: Int)(body: InProcessContext => Unit): Unit = {
+    val ctx = new InProcessContext(parallelism)
+    try body(ctx) finally ctx.shutdown()
+  }
+
+  test("nested expensive computations on a single slot") {
+    withContext(1) { ctx =>
+      val y = ctx.submit(g(f(Computation("x", 20))))
+      assert(Await.result(y, 5.seconds) === 42)
+    }
+  }
+
+  test("many nested expensive computations on few slots") {
+    withContext(4) { ctx =>
+      import ctx.executionContext
+      val ys = for (i <- 0 until 16) yield {
+        ctx.submit(g(f(Computation("x" + i, i))))
+      }
+      val expected = for (i <- 0 until 16) yield 2 * (i + 1)
+      assert(Await.result(Future.sequence(ys), 10.seconds) === expected)
+    }
+  }
+
+  test("nested submission of a job that waits for a slot") {
+    withContext(1) { ctx =>
+      val x = Computation("x", 20)
+      val y = ctx.submit(g(f(x)))
+      val z = ctx.submit(f(x))
+      assert(Await.result(y, 5.seconds) === 42)
+      assert(Await.result(z, 5.seconds) === 21)
+    }
+  }
+}